@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemService#search} over a million items on Postgres, where the trigram indexes exist. Latency
+ * is sampled per call, so the report has percentiles. Needs an empty or previously seeded database,
+ * passed on to the forked JVM:
+ * <pre>
+ * mvn -Pjmh compile exec:exec -Djmh.args="ItemSearchBenchmark \
+ *     -jvmArgsAppend -Dshareit.bench.url=jdbc:postgresql://localhost:5432/shareit_bench"
+ * </pre>
+ * {@code shareit.bench.username} and {@code shareit.bench.password} default to {@code postgres} and empty.
+ * The first run creates the schema and seeds the items, later runs reuse them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int ITEMS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * A word in every twentieth name, a number in a few hundred names and descriptions, and no match.
+     */
+    @Param({"дрель", "4242", "вертолёт"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty("shareit.bench.url");
+        if (url == null) {
+            throw new IllegalStateException("Set -Dshareit.bench.url to the JDBC URL of a Postgres database");
+        }
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + System.getProperty("shareit.bench.username", "postgres"),
+                        "--spring.datasource.password=" + System.getProperty("shareit.bench.password", ""),
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.sql.init.mode=always",
+                        "--spring.sql.init.schema-locations=classpath:schema.sql",
+                        "--shareit.scheduling.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> firstPage() {
+        return itemService.search(text, 0, PAGE_SIZE);
+    }
+
+    /**
+     * Ten in eleven items are available, independently of the tool. Names are one of twenty tools with the
+     * row number, descriptions combine one of ten adjectives, the tool and a model number.
+     */
+    private void seed(JdbcTemplate jdbc) {
+        Long seeded = jdbc.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+        if (seeded != null && seeded >= ITEMS) return;
+
+        jdbc.update("INSERT INTO users (name, email) VALUES ('bench-owner', 'bench-owner@mail.ru') " +
+                "ON CONFLICT DO NOTHING");
+        Long ownerId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'bench-owner@mail.ru'", Long.class);
+        jdbc.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT t.tools[1 + n % 20] || ' ' || n, " +
+                "t.adjectives[1 + (n / 20) % 10] || ' ' || lower(t.tools[1 + n % 20]) || ', модель ' || (n * 7919 % 100000), " +
+                "n % 11 <> 0, ? " +
+                "FROM generate_series(1, ?) n, (SELECT " +
+                "ARRAY['Дрель', 'Перфоратор', 'Шуруповёрт', 'Лобзик', 'Болгарка', 'Пила', 'Рубанок', 'Стремянка', " +
+                "'Тачка', 'Молоток', 'Отвёртка', 'Паяльник', 'Фен', 'Краскопульт', 'Степлер', 'Уровень', " +
+                "'Рулетка', 'Домкрат', 'Компрессор', 'Генератор'] AS tools, " +
+                "ARRAY['Аккумуляторная', 'Сетевая', 'Ручная', 'Складная', 'Профессиональная', 'Компактная', " +
+                "'Мощная', 'Лёгкая', 'Новая', 'Садовая'] AS adjectives) t",
+                ownerId, ITEMS - (seeded == null ? 0 : seeded));
+        jdbc.execute("VACUUM ANALYZE items");
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item read paths against an in-memory H2 database seeded through JDBC, bypassing the
+ * entity date validation so that past bookings can be inserted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final int COMMENTS_PER_ITEM = 5;
+
+    @Param({"100", "2000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+    private long itemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:shareit-bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driverClassName=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--shareit.scheduling.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemBookingDto getById() {
+        return itemService.getById(itemId, ownerId);
+    }
+
+    @Benchmark
+    public List<ItemBookingDto> allItemsFromUser() {
+        return itemService.allItemsFromUser(ownerId);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (name, email) VALUES (?, ?)", "owner", "owner@mail.ru");
+        jdbc.update("INSERT INTO users (name, email) VALUES (?, ?)", "booker", "booker@mail.ru");
+        ownerId = jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "owner@mail.ru");
+        long bookerId = jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, "booker@mail.ru");
+
+        List<Object[]> itemRows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            itemRows.add(new Object[]{"Дрель " + i, "Аккумуляторная дрель " + i, true, ownerId});
+        }
+        jdbc.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (NEXT VALUE FOR items_seq, ?, ?, ?, ?)",
+                itemRows);
+        List<Long> itemIds = jdbc.queryForList("SELECT id FROM items WHERE owner_id = ? ORDER BY id",
+                Long.class, ownerId);
+        itemId = itemIds.get(itemIds.size() / 2);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> bookingRows = new ArrayList<>(items * BOOKINGS_PER_ITEM);
+        List<Object[]> commentRows = new ArrayList<>(items * COMMENTS_PER_ITEM);
+        for (Long id : itemIds) {
+            for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                LocalDateTime start = now.plusDays((b - BOOKINGS_PER_ITEM / 2) * 3L);
+                bookingRows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        id, bookerId, b % 4 == 0 ? "REJECTED" : "APPROVED"});
+            }
+            for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                commentRows.add(new Object[]{"Комментарий " + c, id, bookerId,
+                        Timestamp.valueOf(now.minusDays(c))});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, ?)", bookingRows);
+        jdbc.batchUpdate("INSERT INTO comments (text, item_id, author_id, created_date) VALUES (?, ?, ?, ?)",
+                commentRows);
+        jdbc.update("INSERT INTO item_booking_summaries (item_id, last_booking_id, next_booking_id, next_start, version) " +
+                "SELECT i.id, " +
+                "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                "AND b.start_date <= ? ORDER BY b.start_date DESC LIMIT 1), " +
+                "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                "AND b.start_date >= ? ORDER BY b.start_date LIMIT 1), " +
+                "(SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                "AND b.start_date >= ?), 0 " +
+                "FROM items i WHERE i.owner_id = ?",
+                Timestamp.valueOf(now), Timestamp.valueOf(now), Timestamp.valueOf(now), ownerId);
+    }
+}
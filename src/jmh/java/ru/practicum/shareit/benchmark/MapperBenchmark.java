@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int COMMENTS = 10;
+
+    private User owner;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null, 0L);
+        booking = new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookingStatus.APPROVED,
+                BookingPhase.PAST);
+        comment = new Comment(1L, "Отличная дрель", item, booker, now);
+
+        lastBooking = BookingMapper.bookingToDto(booking);
+        nextBooking = new BookingDto(2L, now.plusDays(1), now.plusDays(2), item.getId(), booker.getId(),
+                BookingStatus.APPROVED);
+        comments = new ArrayList<>();
+        for (int i = 0; i < COMMENTS; i++) {
+            comments.add(CommentMapper.commentToDto(comment));
+        }
+    }
+
+    @Benchmark
+    public ItemBookingDto toItemBookingDto() {
+        return ItemMapper.toItemBookingDto(item, lastBooking, nextBooking, owner.getId(), comments, comments.size());
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return BookingMapper.bookingToDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return CommentMapper.commentToDto(comment);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"100", "1000"})
+    private int size;
+
+    /**
+     * With or without {@link BlackbirdModule}, which the application registers in {@code JacksonConfig}.
+     */
+    @Param({"true", "false"})
+    private boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private List<Booking> bookings;
+    private List<BookingResponseDto> bookingResponses;
+    private List<ItemBookingDto> items;
+
+    @Setup
+    public void setUp() {
+        // Not findAndAddModules(): Blackbird registers itself with the service loader
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item(i, "Дрель " + i, "Аккумуляторная дрель " + i, true, owner, null, 0L);
+            Booking last = new Booking((long) i, now.minusDays(2), now.minusDays(1), item, booker,
+                    BookingStatus.APPROVED, BookingPhase.PAST);
+            Booking next = new Booking((long) i + size, now.plusDays(1), now.plusDays(2), item, booker,
+                    BookingStatus.APPROVED, BookingPhase.FUTURE);
+            List<CommentDto> comments = List.of(
+                    CommentMapper.commentToDto(new Comment((long) i, "Отличная дрель", item, booker, now)));
+
+            bookings.add(last);
+            items.add(ItemMapper.toItemBookingDto(item, BookingMapper.bookingToDto(last),
+                    BookingMapper.bookingToDto(next), owner.getId(), comments, comments.size()));
+        }
+        bookingResponses = BookingMapper.bookingToResponseDto(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingResponseDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingResponses);
+    }
+
+    @Benchmark
+    public byte[] serializeItemBookingDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
@@ -1,10 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.common.ImportResultDto;
+import ru.practicum.shareit.common.NdjsonResponse;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -12,33 +25,94 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
     @GetMapping("/{id}")
-    public Booking getById(@PathVariable Long id, @RequestHeader(HEADER) Long userId) {
-        return bookingService.getById(id, userId);
+    public BookingResponseDto getById(@PathVariable Long id, @RequestHeader(HEADER) Long userId) {
+        return BookingMapper.bookingToResponseDto(bookingService.getById(id, userId));
     }
 
+    /**
+     * Without {@code cursor} and {@code size} the whole list is returned, as before paging was added.
+     */
     @GetMapping()
-    public List<Booking> getByUser(@RequestParam(defaultValue = "ALL") BookingState state,
-                                   @RequestHeader(HEADER) Long userId) {
-        return bookingService.getByUser(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getByUser(@RequestParam(defaultValue = "ALL") BookingState state,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) @Min(1) @Max(1000) Integer size,
+                                                              @RequestHeader(HEADER) Long userId,
+                                                              WebRequest request) {
+        String version = bookingService.getETag(userId, state);
+        ResponseEntity<List<BookingResponseDto>> response = cursor == null && size == null
+                ? ResponseEntity.ok(all(bookingService.streamByUser(userId, state)))
+                : page(bookingService.getByUser(userId, state, BookingCursor.decode(cursor), pageSize(size)));
+        if (version != null && request.checkNotModified(BookingService.getETag(version, response.getBody()))) {
+            return null;
+        }
+        return response;
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByUser(@RequestParam(defaultValue = "ALL") BookingState state,
+                                                              @RequestHeader(HEADER) Long userId) {
+        return NdjsonResponse.of(objectMapper, BookingResponseDto.class, bookingService.streamByUser(userId, state));
+    }
+
+    /**
+     * Without {@code cursor} and {@code size} the whole list is returned, see {@link #getByUser}.
+     */
     @GetMapping("/owner")
-    public List<Booking> getByOwner(@RequestParam(defaultValue = "ALL") BookingState state,
-                                    @RequestHeader(HEADER) Long userId) {
-        return bookingService.getByOwner(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getByOwner(@RequestParam(defaultValue = "ALL") BookingState state,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) @Min(1) @Max(1000) Integer size,
+                                                               @RequestHeader(HEADER) Long userId) {
+        if (cursor == null && size == null) {
+            return ResponseEntity.ok(all(bookingService.streamByOwner(userId, state)));
+        }
+        return page(bookingService.getByOwner(userId, state, BookingCursor.decode(cursor), pageSize(size)));
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByOwner(@RequestParam(defaultValue = "ALL") BookingState state,
+                                                               @RequestHeader(HEADER) Long userId) {
+        return NdjsonResponse.of(objectMapper, BookingResponseDto.class, bookingService.streamByOwner(userId, state));
     }
 
     @PostMapping
-    public Booking create(@RequestBody BookingDto booking, @RequestHeader(HEADER) Long userId) {
-        return bookingService.create(booking, userId);
+    public BookingResponseDto create(@RequestBody BookingDto booking, @RequestHeader(HEADER) Long userId) {
+        return BookingMapper.bookingToResponseDto(bookingService.create(booking, userId));
+    }
+
+    @PostMapping(path = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importBookings(@RequestBody List<BookingDto> bookings,
+                                                                @RequestHeader(HEADER) Long userId) {
+        return NdjsonResponse.of(objectMapper, ImportResultDto.class, bookingService.importBookings(bookings, userId));
     }
 
     @PatchMapping("/{id}")
-    public Booking approve(@PathVariable Long id, @RequestParam boolean approved,
-                           @RequestHeader(HEADER) Long userId) {
-        return bookingService.approve(id, approved, userId);
+    public BookingResponseDto approve(@PathVariable Long id, @RequestParam boolean approved,
+                                      @RequestHeader(HEADER) Long userId) {
+        return BookingMapper.bookingToResponseDto(bookingService.approve(id, approved, userId));
+    }
+
+    private static int pageSize(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : size;
+    }
+
+    private static List<BookingResponseDto> all(Iterator<BookingResponseDto> bookings) {
+        List<BookingResponseDto> all = new ArrayList<>();
+        bookings.forEachRemaining(all::add);
+        return all;
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> page(Window<BookingResponseDto> window) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.encode(last));
+        }
+        return response.body(window.getContent());
     }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package ru.practicum.shareit.booking;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @UtilityClass
 public class BookingMapper {
 
@@ -20,6 +24,25 @@ public class BookingMapper {
         );
     }
 
+    public static BookingResponseDto bookingToResponseDto(Booking booking) {
+        return new BookingResponseDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                new BookingResponseDto.ItemShortDto(booking.getItem().getId(), booking.getItem().getName()),
+                new BookingResponseDto.BookerShortDto(booking.getBooker().getId(), booking.getBooker().getName())
+        );
+    }
+
+    public static List<BookingResponseDto> bookingToResponseDto(List<Booking> bookings) {
+        List<BookingResponseDto> bookingDtos = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            bookingDtos.add(bookingToResponseDto(booking));
+        }
+        return bookingDtos;
+    }
+
     public static Booking dtoToBooking(BookingDto bookingDTO, User user, Item item) {
         return new Booking(
                 bookingDTO.getId(),
@@ -27,7 +50,8 @@ public class BookingMapper {
                 bookingDTO.getEnd(),
                 item,
                 user,
-                bookingDTO.getStatus()
+                bookingDTO.getStatus(),
+                BookingPhase.FUTURE
         );
     }
 }
\ No newline at end of file
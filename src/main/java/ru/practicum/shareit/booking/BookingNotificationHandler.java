@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.notification.NotificationSender;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.Set;
+
+/**
+ * Tells the owner about a new booking request and the booker about the answer or its expiry.
+ * Bookings deleted in the meantime are skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingNotificationHandler implements OutboxEventHandler {
+    private final BookingRepository bookingRepository;
+    private final NotificationSender notificationSender;
+
+    @Override
+    public Set<OutboxEventType> types() {
+        return Set.of(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_APPROVED,
+                OutboxEventType.BOOKING_REJECTED, OutboxEventType.BOOKING_EXPIRED);
+    }
+
+    /**
+     * Not read-only, so that the booking is read from the primary and not from a lagging replica.
+     */
+    @Override
+    @Transactional
+    public void handle(OutboxEvent event) {
+        bookingRepository.findById(event.getAggregateId()).ifPresent(booking -> {
+            switch (event.getType()) {
+                case BOOKING_CREATED -> notificationSender.send(booking.getItem().getOwner(),
+                        "Новый запрос на бронирование вещи " + describe(booking));
+                case BOOKING_APPROVED -> notificationSender.send(booking.getBooker(),
+                        "Бронирование подтверждено: " + describe(booking));
+                case BOOKING_REJECTED -> notificationSender.send(booking.getBooker(),
+                        "Бронирование отклонено: " + describe(booking));
+                case BOOKING_EXPIRED -> notificationSender.send(booking.getBooker(),
+                        "Владелец не ответил на бронирование до его начала: " + describe(booking));
+                default -> {
+                }
+            }
+        });
+    }
+
+    private static String describe(Booking booking) {
+        return "\"" + booking.getItem().getName() + "\" с " + booking.getStart() + " по " + booking.getEnd();
+    }
+}
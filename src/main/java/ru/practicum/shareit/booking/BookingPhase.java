@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Position of a booking relative to the current time, kept up to date by {@link BookingSweepService}.
+ */
+public enum BookingPhase {
+    FUTURE, CURRENT, PAST
+}
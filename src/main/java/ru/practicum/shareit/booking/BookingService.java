@@ -1,19 +1,39 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.WindowIterator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.common.ChunkedImport;
+import ru.practicum.shareit.common.ImportResultDto;
 import ru.practicum.shareit.exception.AvailabilityException;
+import ru.practicum.shareit.exception.BadDateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.item.exception.AccessDeniedException;
+import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.OutboxService;
+import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -21,22 +41,40 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @Transactional(readOnly = true)
 @AllArgsConstructor
 public class BookingService {
+    private static final int STREAM_WINDOW_SIZE = 500;
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final String BOOKER = "booker";
+    private static final String OWNER = "owner";
+
     private BookingRepository bookingRepository;
     private ItemRepository itemRepository;
     private UserRepository userRepository;
+    private UserService userService;
+    private OutboxService outboxService;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private EntityManager entityManager;
 
     public Booking getById(Long id, Long userId) {
         log.info("GET /bookings/{}", id);
 
-        findUserById(userId);
+        checkUserExists(userId);
         Booking booking = bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Id: " + id));
         if (!Objects.equals(booking.getBooker().getId(), userId) && !Objects.equals(booking.getItem().getOwner().getId(), userId)) {
@@ -45,41 +83,57 @@ public class BookingService {
         return booking;
     }
 
-    public List<Booking> getByUser(Long userId, BookingState state) {
+    /**
+     * Version part of the ETag of the booker's booking list, see {@link #getByUser}. It is read before the
+     * page, so that a concurrent write can only make the tag newer than the content, never older. States
+     * that depend on the time have no ETag: their lists change whenever a booking starts or ends.
+     */
+    public String getETag(Long userId, BookingState state) {
+        if (state.dependsOnTime()) {
+            return null;
+        }
+        return userRepository.findBookingsVersionById(userId)
+                .map(version -> "bookings-" + userId + "-" + version)
+                .orElse(null);
+    }
+
+    /**
+     * ETag of a page of the booking list. Item renames don't bump the bookers' list versions, so the
+     * items shown on the page are folded in instead.
+     */
+    public static String getETag(String version, List<BookingResponseDto> page) {
+        return version + "-" + Integer.toHexString(page.stream()
+                .map(BookingResponseDto::getItem)
+                .toList()
+                .hashCode());
+    }
+
+    public Window<BookingResponseDto> getByUser(Long userId, BookingState state, ScrollPosition position, int size) {
         log.info("GET /bookings");
 
-        findUserById(userId);
-        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
-        return switch (state) {
-            case BookingState.CURRENT -> bookingRepository
-                    .findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDesc(userId, now, now);
-            case BookingState.PAST -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case BookingState.FUTURE -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case BookingState.WAITING ->
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf("WAITING"));
-            case BookingState.REJECTED ->
-                    bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf("REJECTED"));
-            case BookingState.ALL -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
-        };
-    }
-
-    public List<Booking> getByOwner(Long userId, BookingState state) {
+        checkUserExists(userId);
+        return find(BOOKER, BookingSpecifications.bookedBy(userId), state, now(), position, size);
+    }
+
+    public Iterator<BookingResponseDto> streamByUser(Long userId, BookingState state) {
+        log.info("GET /bookings (stream)");
+
+        checkUserExists(userId);
+        return stream(BOOKER, BookingSpecifications.bookedBy(userId), state);
+    }
+
+    public Window<BookingResponseDto> getByOwner(Long userId, BookingState state, ScrollPosition position, int size) {
         log.info("GET /bookings/owner");
 
-        findUserById(userId);
-        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
-        return switch (state) {
-            case BookingState.CURRENT -> bookingRepository
-                    .findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDesc(userId, now, now);
-            case BookingState.PAST -> bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case BookingState.FUTURE ->
-                    bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-            case BookingState.WAITING ->
-                    bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf("WAITING"));
-            case BookingState.REJECTED ->
-                    bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.valueOf("REJECTED"));
-            case BookingState.ALL -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
-        };
+        checkUserExists(userId);
+        return find(OWNER, BookingSpecifications.ofItemOwnedBy(userId), state, now(), position, size);
+    }
+
+    public Iterator<BookingResponseDto> streamByOwner(Long userId, BookingState state) {
+        log.info("GET /bookings/owner (stream)");
+
+        checkUserExists(userId);
+        return stream(OWNER, BookingSpecifications.ofItemOwnedBy(userId), state);
     }
 
     @Transactional
@@ -88,7 +142,7 @@ public class BookingService {
 
         booking.setBookerId(userId);
         Item item = itemRepository.findById(booking.getItemId())
-                .orElseThrow(() -> new BookingNotFoundException("Id: " + booking.getItemId()));
+                .orElseThrow(() -> new ItemNotFoundException("Id: " + booking.getItemId()));
 
         if (!item.getAvailable()) {
             throw new AvailabilityException("This item cannot be booked");
@@ -99,32 +153,198 @@ public class BookingService {
         if (Objects.equals(item.getOwner().getId(), userId)) {
             throw new NotFoundException("Id: " + booking.getItemId());
         }
+        if (overlapsApproved(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new BookingOverlapException("Item " + item.getId() + " is already booked for this period");
+        }
         booking.setStatus(BookingStatus.WAITING);
-        return bookingRepository.save(BookingMapper.dtoToBooking(booking, user, item));
+        Booking saved = bookingRepository.save(BookingMapper.dtoToBooking(booking, user, item));
+        outboxService.record(OutboxEventType.BOOKING_CREATED, saved.getId(), item.getId());
+        userRepository.bumpBookingsVersion(List.of(userId));
+        return saved;
+    }
+
+    /**
+     * Not read-only for the same reason as {@code ItemService.importItems}.
+     */
+    @Transactional
+    public Iterator<ImportResultDto> importBookings(List<BookingDto> bookings, Long userId) {
+        log.info("POST /bookings/import -> {} rows", bookings.size());
+
+        checkUserExists(userId);
+        return ChunkedImport.of(bookings, IMPORT_CHUNK_SIZE, (chunk, offset) ->
+                transactionTemplate.execute(status -> importChunk(chunk, offset, userId)));
     }
 
     @Transactional
     public Booking approve(Long id, boolean approved, Long userId) {
         log.info("PATCH /bookings/{}", id);
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("id: " + userId));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("id: " + userId);
+        }
 
-        Booking booking = bookingRepository.findById(id)
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        LocalDateTime now = now();
+        int updated;
+        try {
+            updated = bookingRepository.updateStatusIfWaiting(id, userId, status, now);
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingOverlapException("Booking " + id + " overlaps an approved booking of the same item");
+        }
+
+        Booking saved = bookingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Id: " + id));
+        if (updated == 0) {
+            if (!Objects.equals(saved.getItem().getOwner().getId(), userId)) {
+                throw new AccessDeniedException("You are not the owner of this item");
+            }
+            if (saved.getStatus() == BookingStatus.APPROVED) {
+                throw new StatusException("It is not possible to confirm a reservation that has already been confirmed.");
+            }
+            if (saved.getStatus() != BookingStatus.WAITING) {
+                throw new StatusException("Only a booking in WAITING status can be approved or rejected.");
+            }
+            if (!saved.getStart().isAfter(now)) {
+                throw new BadDateException("Время начала не должно быть в прошлом");
+            }
+            throw new BookingOverlapException("Item " + saved.getItem().getId() + " is already booked for this period");
+        }
+        outboxService.record(approved ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED,
+                saved.getId(), saved.getItem().getId());
+        userRepository.bumpBookingsVersion(List.of(saved.getBooker().getId()));
+        meterRegistry.counter("shareit.bookings.transitions", "status", saved.getStatus().name()).increment();
+        return saved;
+    }
+
+    private List<ImportResultDto> importChunk(List<BookingDto> chunk, int offset, Long ownerId) {
+        Map<Long, Item> items = itemRepository.findAllById(collectIds(chunk, BookingDto::getItemId)).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> bookers = userRepository.findAllById(collectIds(chunk, BookingDto::getBookerId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        LocalDateTime now = now();
 
-        if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
-            throw new AccessDeniedException("You are not the owner of this item");
+        List<ImportResultDto> results = new ArrayList<>(chunk.size());
+        List<Booking> bookings = new ArrayList<>(chunk.size());
+        List<ImportResultDto> imported = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            BookingDto bookingDto = chunk.get(i);
+            Item item = items.get(bookingDto.getItemId());
+            User booker = bookers.get(bookingDto.getBookerId());
+            String error = validateImported(bookingDto, item, booker, ownerId, now);
+            if (error != null) {
+                results.add(ImportResultDto.failed(offset + i, error));
+                continue;
+            }
+            Booking booking = BookingMapper.dtoToBooking(bookingDto, booker, item);
+            booking.setId(null);
+            if (booking.getStatus() == null) {
+                booking.setStatus(BookingStatus.WAITING);
+            }
+            ImportResultDto result = ImportResultDto.imported(offset + i, null);
+            bookings.add(booking);
+            imported.add(result);
+            results.add(result);
         }
-        if (booking.getStatus() == BookingStatus.APPROVED) {
-            throw new StatusException("It is not possible to confirm a reservation that has already been confirmed.");
+
+        bookingRepository.saveAll(bookings);
+        bookingRepository.flush();
+        for (int i = 0; i < bookings.size(); i++) {
+            imported.get(i).setId(bookings.get(i).getId());
+        }
+        for (Booking booking : bookings) {
+            outboxService.record(booking.getStatus() == BookingStatus.APPROVED
+                    ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_CREATED,
+                    booking.getId(), booking.getItem().getId());
+        }
+        if (!bookings.isEmpty()) {
+            userRepository.bumpBookingsVersion(bookings.stream()
+                    .map(booking -> booking.getBooker().getId())
+                    .collect(Collectors.toSet()));
+        }
+        detachChunk();
+        return results;
+    }
+
+    /**
+     * Flushes and detaches the imported chunk, see {@code ItemService.detachChunk}.
+     */
+    private void detachChunk() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String validateImported(BookingDto booking, Item item, User booker, Long ownerId, LocalDateTime now) {
+        if (booking.getStart() == null || booking.getEnd() == null
+                || booking.getStart().isBefore(now) || !booking.getStart().isBefore(booking.getEnd())) {
+            return "Invalid booking period";
+        }
+        if (item == null || !Objects.equals(item.getOwner().getId(), ownerId)) {
+            return "Item not found: " + booking.getItemId();
+        }
+        if (booker == null) {
+            return "User not found: " + booking.getBookerId();
+        }
+        if (Objects.equals(booker.getId(), ownerId)) {
+            return "Owner cannot book own item";
+        }
+        if (booking.getStatus() == BookingStatus.APPROVED
+                && overlapsApproved(item.getId(), booking.getStart(), booking.getEnd())) {
+            return "Item " + item.getId() + " is already booked for this period";
+        }
+        return null;
+    }
+
+    private static Set<Long> collectIds(List<BookingDto> bookings, Function<BookingDto, Long> id) {
+        return bookings.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null) {
+            return false;
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingRepository.save(booking);
+        return bookingRepository
+                .existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, BookingStatus.APPROVED, end, start);
+    }
+
+    private Window<BookingResponseDto> find(String partyName, Specification<Booking> party, BookingState state,
+                                            LocalDateTime now, ScrollPosition position, int size) {
+        Timer timer = Timer.builder("shareit.bookings.query")
+                .description("Booking list query by party and state")
+                .tag("party", partyName)
+                .tag("state", state.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        return timer.record(() -> bookingRepository
+                .findBy(party.and(BookingSpecifications.inState(state, now)), query -> query
+                        .sortBy(KEYSET_ORDER)
+                        .limit(size)
+                        .scroll(position))
+                .map(BookingMapper::bookingToResponseDto));
+    }
+
+    /**
+     * Every window is read in its own repository transaction and mapped to DTOs before the next one is
+     * fetched, so at most one window of entities is managed at a time. This relies on open-in-view being
+     * disabled, otherwise the request EntityManager would keep every streamed booking until the response ends.
+     */
+    private Iterator<BookingResponseDto> stream(String partyName, Specification<Booking> party, BookingState state) {
+        LocalDateTime now = now();
+        return WindowIterator
+                .of(position -> find(partyName, party, state, now, position, STREAM_WINDOW_SIZE))
+                .startingAt(ScrollPosition.keyset());
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("id: " + userId));
+        return userService.findById(userId);
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("id: " + userId);
+        }
     }
 }
\ No newline at end of file
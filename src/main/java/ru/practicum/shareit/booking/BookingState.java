@@ -1,5 +1,12 @@
 package ru.practicum.shareit.booking;
 
 public enum BookingState {
-    ALL, CURRENT, FUTURE, PAST, WAITING, REJECTED
+    ALL, CURRENT, FUTURE, PAST, WAITING, REJECTED, EXPIRED;
+
+    /**
+     * Whether the bookings in this state change with the clock alone, as bookings start and end.
+     */
+    public boolean dependsOnTime() {
+        return this == CURRENT || this == FUTURE || this == PAST;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.OutboxEventHandler;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recomputes the item's booking summary once an approval has been committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSummaryEventHandler implements OutboxEventHandler {
+    private final BookingSummaryService bookingSummaryService;
+
+    @Override
+    public Set<OutboxEventType> types() {
+        return Set.of(OutboxEventType.BOOKING_APPROVED);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        bookingSummaryService.refresh(List.of(event.getItemId()));
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps {@code item_booking_summaries} in sync with approved bookings. Rows are recomputed on
+ * approval, and periodically for items whose next booking has started and therefore became the last one.
+ * Items without a summary are backfilled once at startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingSummaryService {
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) return;
+
+        summaryRepository.refresh(itemIds, now());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-delay:PT1M}")
+    public void refreshDue() {
+        LocalDateTime now = now();
+        List<Long> due = summaryRepository.findDueItemIds(now, REFRESH_BATCH_SIZE);
+        if (due.isEmpty()) return;
+
+        summaryRepository.refresh(due, now);
+        log.info("Refreshed {} due booking summaries", due.size());
+    }
+
+    /**
+     * Creates the summaries of items that have approved bookings but no summary yet, e.g. bookings
+     * that predate the table. Runs once at startup, one transaction per batch; later approvals are
+     * covered by {@link BookingSummaryEventHandler}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        int backfilled = 0;
+        List<Long> missing;
+        while (!(missing = summaryRepository.findMissingItemIds(REFRESH_BATCH_SIZE)).isEmpty()) {
+            List<Long> batch = missing;
+            transactionTemplate.executeWithoutResult(status -> summaryRepository.refresh(batch, now()));
+            backfilled += batch.size();
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled {} missing booking summaries", backfilled);
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.IntSupplier;
+
+/**
+ * Expires WAITING bookings that were never answered before their start and moves bookings through
+ * {@link BookingPhase}s. Works in small batches along partial time indexes, each batch in its own
+ * short transaction, so only the touched rows are ever locked.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingSweepService {
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-sweep.delay:PT30S}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+
+        int expired = drain(() -> bookingRepository.expireWaiting(now, SWEEP_BATCH_SIZE));
+        int started = drain(() -> bookingRepository.startFuture(now, SWEEP_BATCH_SIZE));
+        int finished = drain(() -> bookingRepository.finishCurrent(now, SWEEP_BATCH_SIZE));
+
+        if (expired + started + finished > 0) {
+            log.info("Booking sweep: {} expired, bookings of {} bookers started, of {} bookers finished",
+                    expired, started, finished);
+        }
+    }
+
+    private int drain(IntSupplier batch) {
+        int total = 0;
+        int updated;
+        do {
+            Integer result = transactionTemplate.execute(status -> batch.getAsInt());
+            updated = result == null ? 0 : result;
+            total += updated;
+        } while (updated > 0);
+        return total;
+    }
+}
@@ -3,9 +3,9 @@ package ru.practicum.shareit.booking.exception;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
-@ResponseStatus(HttpStatus.NOT_FOUND)
-public class BookingNotFoundException extends RuntimeException {
-    public BookingNotFoundException(String message) {
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadCursorException extends RuntimeException {
+    public BadCursorException(String message) {
         super(message);
     }
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last and next approved booking of an item, maintained by {@code BookingSummaryService}.
+ */
+@Data
+@Entity
+@Table(name = "item_booking_summaries")
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString(exclude = {"lastBooking", "nextBooking"})
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    /**
+     * Incremented whenever the last or next booking changes, part of the item ETag.
+     */
+    private long version;
+}
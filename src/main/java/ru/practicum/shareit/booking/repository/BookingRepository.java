@@ -1,40 +1,110 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findAllByBookerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDesc(Long userId, LocalDateTime now, LocalDateTime now2);
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now);
+    /**
+     * Booking lists fetch their item and booker in the same query. {@code FluentQuery.project} would do the
+     * same, but is not applied when the query is scrolled.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    <S extends Booking, R> R findBy(Specification<Booking> spec, Function<FetchableFluentQuery<S>, R> queryFunction);
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now);
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, BookingStatus status,
+                                                             LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, BookingStatus status);
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status,
+                                                           LocalDateTime end);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId);
+    /**
+     * Moves a WAITING booking of an item owned by {@code ownerId} to {@code status} in one statement.
+     * Approval is skipped when an approved booking of the same item overlaps, the exclusion constraint
+     * on {@code bookings} covers the race between two concurrent approvals. A bulk update bypasses the
+     * entity's date validation, so bookings that have already started are skipped here as well.
+     *
+     * @return 1 if the booking changed state, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id = :id AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "AND b.start > :now " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId) " +
+            "AND (:status <> ru.practicum.shareit.booking.BookingStatus.APPROVED OR NOT EXISTS (" +
+            "SELECT o.id FROM Booking o WHERE o.item.id = b.item.id " +
+            "AND o.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "AND o.start < b.end AND o.end > b.start))")
+    int updateStatusIfWaiting(@Param("id") Long id, @Param("ownerId") Long ownerId,
+                              @Param("status") BookingStatus status, @Param("now") LocalDateTime now);
 
-    List<Booking> findAllByItemOwnerIdAndStartLessThanEqualAndEndGreaterThanEqualOrderByStartDesc(Long ownerId, LocalDateTime now, LocalDateTime now2);
+    /**
+     * Expires up to {@code limit} WAITING bookings that have already started, bumps the booking list
+     * version of their bookers and records a BOOKING_EXPIRED outbox event for each of them. Rows locked
+     * by a concurrent approval are skipped. The claimed ids are passed on as an array, so that the update
+     * reaches them through the primary key whatever number of rows the planner expects from the limit.
+     *
+     * @return number of expired bookings
+     */
+    @Modifying
+    @Query(value = "WITH expired AS (" +
+            "UPDATE bookings SET status = 'EXPIRED' WHERE id = ANY (ARRAY(" +
+            "SELECT id FROM bookings WHERE status = 'WAITING' AND start_date <= :now " +
+            "ORDER BY start_date LIMIT :limit FOR UPDATE SKIP LOCKED)) " +
+            "RETURNING id, item_id, booker_id), " +
+            "bumped AS (UPDATE users SET bookings_version = bookings_version + 1 " +
+            "WHERE id IN (SELECT booker_id FROM expired)) " +
+            "INSERT INTO outbox_events (type, aggregate_id, item_id, created_date) " +
+            "SELECT 'BOOKING_EXPIRED', id, item_id, :now FROM expired", nativeQuery = true)
+    int expireWaiting(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime now);
+    /**
+     * Moves up to {@code limit} started FUTURE bookings on and bumps the booking list version of
+     * their bookers.
+     *
+     * @return number of bookers whose list changed, 0 once nothing is left to move
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+            "UPDATE bookings SET phase = CASE WHEN end_date < :now THEN 'PAST' ELSE 'CURRENT' END " +
+            "WHERE id = ANY (ARRAY(SELECT id FROM bookings WHERE phase = 'FUTURE' AND start_date <= :now " +
+            "ORDER BY start_date LIMIT :limit FOR UPDATE SKIP LOCKED)) " +
+            "RETURNING booker_id) " +
+            "UPDATE users SET bookings_version = bookings_version + 1 " +
+            "WHERE id IN (SELECT booker_id FROM moved)", nativeQuery = true)
+    int startFuture(@Param("now") LocalDateTime now, @Param("limit") int limit);
 
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime now);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start >= CURRENT_TIMESTAMP AND b.status = 'APPROVED' ORDER BY b.start ASC")
-    List<Booking> findUpcomingBookingsByItemId(@Param("itemId") Long itemId);
-
-    @Query("SELECT b FROM Booking b JOIN FETCH b.booker WHERE b.item.id = :itemId AND b.start <= CURRENT_TIMESTAMP AND b.status = 'APPROVED' ORDER BY b.start DESC ")
-    List<Booking> findLastBookingsByItemId(@Param("itemId") Long itemId);
+    /**
+     * Moves up to {@code limit} finished CURRENT bookings to PAST and bumps the booking list version
+     * of their bookers.
+     *
+     * @return number of bookers whose list changed, 0 once nothing is left to move
+     */
+    @Modifying
+    @Query(value = "WITH moved AS (" +
+            "UPDATE bookings SET phase = 'PAST' " +
+            "WHERE id = ANY (ARRAY(SELECT id FROM bookings WHERE phase = 'CURRENT' AND end_date < :now " +
+            "ORDER BY end_date LIMIT :limit FOR UPDATE SKIP LOCKED)) " +
+            "RETURNING booker_id) " +
+            "UPDATE users SET bookings_version = bookings_version + 1 " +
+            "WHERE id IN (SELECT booker_id FROM moved)", nativeQuery = true)
+    int finishCurrent(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.BookingPhase;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+@UtilityClass
+public class BookingSpecifications {
+
+    public static Specification<Booking> bookedBy(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> ofItemOwnedBy(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * The phase narrows the index range, the dates decide. Phases are moved on by a background sweep,
+     * so a booking can still carry an earlier phase than its dates say, but never a later one.
+     * Any phase can hold a finished booking, so PAST is filtered by date alone.
+     */
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case CURRENT -> cb.and(
+                    root.get("phase").in(BookingPhase.FUTURE, BookingPhase.CURRENT),
+                    cb.lessThanOrEqualTo(root.get("start"), now),
+                    cb.greaterThanOrEqualTo(root.get("end"), now));
+            case PAST -> cb.lessThan(root.get("end"), now);
+            case FUTURE -> cb.and(
+                    cb.equal(root.get("phase"), BookingPhase.FUTURE),
+                    cb.greaterThan(root.get("start"), now));
+            case WAITING -> cb.equal(root.get("status"), BookingStatus.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), BookingStatus.REJECTED);
+            case EXPIRED -> cb.equal(root.get("status"), BookingStatus.EXPIRED);
+            case ALL -> null;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    Optional<ItemBookingSummary> findById(Long itemId);
+
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * Recomputes the summaries of the given items. Summaries that actually changed get a new version,
+     * and so do the item lists of their owners. {@code next_start} is compared as well, because deleting
+     * a booking nulls {@code next_booking_id} but leaves the start behind, which would keep the row due.
+     */
+    @Modifying
+    @Query(value = "WITH refreshed AS (" +
+            "INSERT INTO item_booking_summaries (item_id, last_booking_id, next_booking_id, next_start) " +
+            "SELECT i.id, last_booking.id, next_booking.id, next_booking.start_date " +
+            "FROM items i " +
+            "LEFT JOIN LATERAL (SELECT b.id FROM bookings b " +
+            "    WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date <= :now " +
+            "    ORDER BY b.start_date DESC LIMIT 1) last_booking ON TRUE " +
+            "LEFT JOIN LATERAL (SELECT b.id, b.start_date FROM bookings b " +
+            "    WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date >= :now " +
+            "    ORDER BY b.start_date ASC LIMIT 1) next_booking ON TRUE " +
+            "WHERE i.id IN (:itemIds) " +
+            "ON CONFLICT (item_id) DO UPDATE SET last_booking_id = EXCLUDED.last_booking_id, " +
+            "next_booking_id = EXCLUDED.next_booking_id, next_start = EXCLUDED.next_start, " +
+            "version = item_booking_summaries.version + 1 " +
+            "WHERE item_booking_summaries.last_booking_id IS DISTINCT FROM EXCLUDED.last_booking_id " +
+            "OR item_booking_summaries.next_booking_id IS DISTINCT FROM EXCLUDED.next_booking_id " +
+            "OR item_booking_summaries.next_start IS DISTINCT FROM EXCLUDED.next_start " +
+            "RETURNING item_id) " +
+            "UPDATE users SET items_version = items_version + 1 " +
+            "WHERE id IN (SELECT i.owner_id FROM items i JOIN refreshed r ON r.item_id = i.id)", nativeQuery = true)
+    int refresh(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT s.item_id FROM item_booking_summaries s " +
+            "WHERE s.next_start <= :now ORDER BY s.next_start LIMIT :limit", nativeQuery = true)
+    List<Long> findDueItemIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = "SELECT DISTINCT b.item_id FROM bookings b " +
+            "WHERE b.status = 'APPROVED' " +
+            "AND NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = b.item_id) " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findMissingItemIds(@Param("limit") int limit);
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -16,6 +17,20 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @ToString(exclude = {"item", "author"})
+@NamedNativeQuery(name = "Comment.findLatestDtosByItemIdIn",
+        query = "SELECT r.id, r.text, r.item_id, r.author_name, r.created_date FROM (" +
+                "SELECT c.id, c.text, c.item_id, u.name AS author_name, c.created_date, " +
+                "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created_date DESC, c.id DESC) AS rn " +
+                "FROM comments c JOIN users u ON u.id = c.author_id WHERE c.item_id IN (:itemIds)) r " +
+                "WHERE r.rn <= :limit ORDER BY r.item_id, r.created_date DESC, r.id DESC",
+        resultSetMapping = "CommentDto")
+@SqlResultSetMapping(name = "CommentDto", classes = @ConstructorResult(targetClass = CommentDto.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "text", type = String.class),
+        @ColumnResult(name = "item_id", type = Long.class),
+        @ColumnResult(name = "author_name", type = String.class),
+        @ColumnResult(name = "created_date", type = LocalDateTime.class)
+}))
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,11 +38,11 @@ public class Comment {
 
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private User author;
 
@@ -1,12 +1,26 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.comment.dto.CommentCountDto;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
-}
\ No newline at end of file
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
+    @Query(value = "SELECT new ru.practicum.shareit.comment.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a WHERE c.item.id = :itemId ORDER BY c.created DESC, c.id DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.item.id = :itemId")
+    Page<CommentDto> findDtosByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.comment.dto.CommentCountDto(c.item.id, COUNT(c)) " +
+            "FROM Comment c WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<CommentCountDto> countByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
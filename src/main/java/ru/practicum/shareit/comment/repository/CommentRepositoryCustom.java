@@ -0,0 +1,13 @@
+package ru.practicum.shareit.comment.repository;
+
+import ru.practicum.shareit.comment.dto.CommentDto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+    /**
+     * Latest {@code limit} comments of every given item, see {@code Comment.findLatestDtosByItemIdIn}.
+     */
+    List<CommentDto> findLatestDtosByItemIdIn(Collection<Long> itemIds, int limit);
+}
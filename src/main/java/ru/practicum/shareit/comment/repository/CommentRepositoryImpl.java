@@ -0,0 +1,25 @@
+package ru.practicum.shareit.comment.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.comment.dto.CommentDto;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the named native query on the {@link EntityManager} directly: a query method declared with
+ * {@code @Query(name = ...)} reads a DTO through a {@code Tuple} and ignores the query's result set mapping.
+ */
+@RequiredArgsConstructor
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<CommentDto> findLatestDtosByItemIdIn(Collection<Long> itemIds, int limit) {
+        return entityManager.createNamedQuery("Comment.findLatestDtosByItemIdIn", CommentDto.class)
+                .setParameter("itemIds", itemIds)
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+}
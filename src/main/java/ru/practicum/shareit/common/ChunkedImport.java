@@ -0,0 +1,61 @@
+package ru.practicum.shareit.common;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily imports rows chunk by chunk as the results are consumed, so each chunk can be
+ * committed and reported before the next one is read. A chunk rejected by a database
+ * constraint is reported as failed row by row instead of aborting the whole import.
+ */
+@UtilityClass
+public class ChunkedImport {
+
+    public static <T> Iterator<ImportResultDto> of(List<T> rows, int chunkSize, ChunkImporter<T> importer) {
+        return new Iterator<>() {
+            private int from = 0;
+            private Iterator<ImportResultDto> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && from < rows.size()) {
+                    int to = Math.min(rows.size(), from + chunkSize);
+                    current = importChunk(rows.subList(from, to), from).iterator();
+                    from = to;
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public ImportResultDto next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+            private List<ImportResultDto> importChunk(List<T> chunk, int offset) {
+                try {
+                    return importer.importChunk(chunk, offset);
+                } catch (DataIntegrityViolationException e) {
+                    List<ImportResultDto> failed = new ArrayList<>(chunk.size());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        failed.add(ImportResultDto.failed(offset + i, "Chunk rejected by database constraint"));
+                    }
+                    return failed;
+                }
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface ChunkImporter<T> {
+        List<ImportResultDto> importChunk(List<T> chunk, int offset);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultDto {
+    private int row;
+    private Long id;
+    private String error;
+
+    public static ImportResultDto imported(int row, Long id) {
+        return new ImportResultDto(row, id, null);
+    }
+
+    public static ImportResultDto failed(int row, String error) {
+        return new ImportResultDto(row, null, error);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+
+@UtilityClass
+public class NdjsonResponse {
+
+    public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper objectMapper, Class<T> type,
+                                                               Iterator<T> rows) {
+        ObjectWriter writer = objectMapper.writerFor(type);
+        StreamingResponseBody body = out -> {
+            while (rows.hasNext()) {
+                out.write(writer.writeValueAsBytes(rows.next()));
+                out.write('\n');
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
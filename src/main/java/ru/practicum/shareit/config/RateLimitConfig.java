@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import java.time.Duration;
+
+/**
+ * Per-user token buckets for the expensive endpoints, configured through
+ * {@code shareit.rate-limit.<endpoint>.capacity} and {@code .refill-per-second}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor("search", 20, 10)).addPathPatterns("/items/search");
+        registry.addInterceptor(interceptor("owner-bookings", 20, 5)).addPathPatterns("/bookings/owner");
+    }
+
+    private RateLimitInterceptor interceptor(String endpoint, int defaultCapacity, double defaultRefillPerSecond) {
+        String prefix = "shareit.rate-limit." + endpoint;
+        int capacity = environment.getProperty(prefix + ".capacity", Integer.class, defaultCapacity);
+        double refillPerSecond = environment.getProperty(prefix + ".refill-per-second", Double.class,
+                defaultRefillPerSecond);
+        return new RateLimitInterceptor(endpoint, new RateLimiter(capacity, refillPerSecond, IDLE_TIMEOUT),
+                meterRegistry);
+    }
+}
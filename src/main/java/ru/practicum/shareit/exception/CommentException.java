@@ -1,7 +1,11 @@
 package ru.practicum.shareit.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class CommentException extends RuntimeException {
     public CommentException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+}
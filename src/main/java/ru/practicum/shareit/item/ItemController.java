@@ -1,11 +1,21 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.common.ImportResultDto;
+import ru.practicum.shareit.common.NdjsonResponse;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
@@ -19,7 +29,10 @@ import java.util.stream.Collectors;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
     private static final String HEADER = "X-Sharer-User-Id";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String DEFAULT_PAGE_SIZE = "100";
 
     @PostMapping
     public ItemDto create(@RequestBody @Valid ItemDto itemDto,
@@ -27,6 +40,12 @@ public class ItemController {
         return ItemMapper.itemToDto(itemService.create(itemDto, userId));
     }
 
+    @PostMapping(path = "/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importItems(@RequestBody List<ItemDto> items,
+                                                             @RequestHeader(HEADER) long userId) {
+        return NdjsonResponse.of(objectMapper, ImportResultDto.class, itemService.importItems(items, userId));
+    }
+
     @PatchMapping("{itemId}")
     public ItemDto update(@PathVariable Long itemId,
                           @RequestHeader(HEADER) Long userId, @RequestBody Map<String, Object> params) {
@@ -34,7 +53,12 @@ public class ItemController {
     }
 
     @GetMapping("{itemId}")
-    public ItemBookingDto getById(@PathVariable Long itemId, @RequestHeader(HEADER) Long userId) {
+    public ItemBookingDto getById(@PathVariable Long itemId, @RequestHeader(HEADER) Long userId,
+                                  WebRequest request) {
+        String etag = itemService.getETag(itemId, userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return itemService.getById(itemId, userId);
     }
 
@@ -44,14 +68,30 @@ public class ItemController {
         return CommentMapper.commentToDto(itemService.comment(itemId, userId, comment));
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(defaultValue = "0") @Min(0) int from,
+                                                        @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(1000) int size) {
+        Page<CommentDto> comments = itemService.getComments(itemId, from, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(comments.getTotalElements()))
+                .body(comments.getContent());
+    }
+
     @GetMapping
-    public List<ItemBookingDto> allItemsFromUser(@RequestHeader(HEADER) long userId) {
+    public List<ItemBookingDto> allItemsFromUser(@RequestHeader(HEADER) long userId, WebRequest request) {
+        String etag = itemService.getItemsETag(userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return itemService.allItemsFromUser(userId);
     }
 
     @GetMapping("search")
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text)
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") @Min(0) int from,
+                                @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(1000) int size) {
+        return itemService.search(text, from, size)
                 .stream()
                 .map(ItemMapper::itemToDto)
                 .collect(Collectors.toList());
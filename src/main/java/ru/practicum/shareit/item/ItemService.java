@@ -1,19 +1,37 @@
 package ru.practicum.shareit.item;
 
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.comment.dto.CommentCountDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.common.ChunkedImport;
+import ru.practicum.shareit.common.ImportResultDto;
+import ru.practicum.shareit.common.SingleFlight;
 import ru.practicum.shareit.exception.CommentException;
+import ru.practicum.shareit.exception.ConcurrentUpdateException;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
@@ -21,36 +39,74 @@ import ru.practicum.shareit.item.exception.AccessDeniedException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemService {
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final int COMMENTS_PREVIEW_SIZE = 20;
+
     private final ItemRepository itemRepository;
+    private final UserService userService;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final SingleFlight<String, List<Item>> searchFlights = new SingleFlight<>();
 
     @Transactional
     public Item create(ItemDto itemDto, long userId) {
         log.info("POST /items");
 
         User user = findUserById(userId);
-        Item item = ItemMapper.dtoToItem(itemDto, user);
-        return itemRepository.save(item);
+        ItemRequest request = itemDto.getRequestId() == null ? null : itemRequestRepository
+                .findById(itemDto.getRequestId())
+                .orElseThrow(() -> new ItemRequestNotFoundException("Id: " + itemDto.getRequestId()));
+        Item item = itemRepository.save(ItemMapper.dtoToItem(itemDto, user, request));
+        userRepository.bumpItemsVersion(userId);
+        return item;
     }
 
+    /**
+     * Not read-only although it only checks the owner: with a read replica, a read-only transaction here
+     * could hand the request's first connection to the replica. Each chunk is written in its own transaction.
+     */
     @Transactional
+    public Iterator<ImportResultDto> importItems(List<ItemDto> itemDtos, long userId) {
+        log.info("POST /items/import -> {} rows", itemDtos.size());
+
+        User user = findUserById(userId);
+        return ChunkedImport.of(itemDtos, IMPORT_CHUNK_SIZE, (chunk, offset) ->
+                transactionTemplate.execute(status -> importChunk(chunk, offset, user)));
+    }
+
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 20, multiplier = 2, random = true))
     public Item update(Long itemId, Long userId, Map<String, Object> request) {
         log.info("PATCH /items/{}", request);
 
@@ -75,60 +131,184 @@ public class ItemService {
         });
 
 
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        itemRepository.bumpETagVersion(itemId);
+        userRepository.bumpItemsVersion(userId);
+        return saved;
+    }
+
+    @Recover
+    public Item update(OptimisticLockingFailureException e, Long itemId, Long userId, Map<String, Object> request) {
+        throw new ConcurrentUpdateException("Item " + itemId + " was modified concurrently, retry the request");
+    }
+
+    /**
+     * ETag of {@link #getById}: changes with the item, its comments and its booking summary, and differs
+     * between the owner and other users because only the owner sees bookings. A summary starts at version 0,
+     * so an item without one is tagged apart from it.
+     */
+    public String getETag(Long itemId, Long userId) {
+        return itemRepository.findVersionById(itemId)
+                .map(version -> "item-" + itemId + "-" + version.getVersion()
+                        + "-" + Objects.requireNonNullElse(version.getSummaryVersion(), "none")
+                        + (Objects.equals(version.getOwnerId(), userId) ? "-owner" : ""))
+                .orElse(null);
+    }
+
+    public String getItemsETag(long userId) {
+        return userRepository.findItemsVersionById(userId)
+                .map(version -> "items-" + userId + "-" + version)
+                .orElse(null);
     }
 
     public ItemBookingDto getById(Long id, Long userId) {
-        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemId(id);
-        BookingDto lastBooking = lastBookings.isEmpty() ? null : BookingMapper
-                .bookingToDto(lastBookings.getFirst());
+        ItemBookingSummary summary = summaryRepository.findById(id).orElse(null);
+        BookingDto lastBooking = summary == null ? null : toBookingDto(summary.getLastBooking());
+        BookingDto nextBooking = summary == null ? null : toBookingDto(summary.getNextBooking());
 
-        List<Booking> upcomingBookings = bookingRepository.findUpcomingBookingsByItemId(id);
-        BookingDto nextBooking = upcomingBookings.isEmpty() ? null : BookingMapper
-                .bookingToDto(upcomingBookings.getFirst());
+        Page<CommentDto> comments = commentRepository.findDtosByItemId(id, PageRequest.of(0, COMMENTS_PREVIEW_SIZE));
+
+        return ItemMapper.toItemBookingDto(findItemById(id), lastBooking, nextBooking, userId,
+                comments.getContent(), comments.getTotalElements());
+    }
 
-        List<CommentDto> comments = commentRepository.findAllByItemId(id).stream()
-                .map(CommentMapper::commentToDto).collect(Collectors.toList());
+    public Page<CommentDto> getComments(Long itemId, int from, int size) {
+        log.info("GET /items/{}/comments", itemId);
 
-        return ItemMapper.toItemBookingDto(findItemById(id), lastBooking, nextBooking, userId, comments);
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException("Id: " + itemId);
+        }
+        return commentRepository.findDtosByItemId(itemId, PageRequest.of(from / size, size));
     }
 
     @Transactional
     public Comment comment(Long itemId, Long userId, Comment comment) {
         Item item = findItemById(itemId);
         User user = findUserById(userId);
-        List<Booking> endedBookings = bookingRepository.findLastBookingsByItemId(itemId);
         String text = comment.getText();
         if (text == null || text.isEmpty()) {
             throw new CommentException("Cannot be empty");
         }
-        for (Booking booking : endedBookings) {
-            if (booking.getBooker().getId() == userId) {
-                return commentRepository.save(new Comment(0L, text, item, user, LocalDateTime.now()));
-            }
+        LocalDateTime now = LocalDateTime.now();
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId,
+                BookingStatus.APPROVED, now)) {
+            throw new CommentException("You cannot leave a review on this subject");
         }
-        throw new CommentException("You cannot leave a review on this subject");
+        Comment saved = commentRepository.save(new Comment(0L, text, item, user, now));
+        itemRepository.bumpETagVersion(itemId);
+        userRepository.bumpItemsVersion(item.getOwner().getId());
+        return saved;
     }
 
 
     public List<ItemBookingDto> allItemsFromUser(long userId) {
         log.info("GET /items HEADER -> {}", userId);
 
-        return itemRepository.findAllByOwnerId(userId).stream()
-                .map(item -> getById(item.getId(), userId))
+        List<Item> items = itemRepository.findAllByOwnerId(userId);
+        if (items.isEmpty()) return Collections.emptyList();
+
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        Map<Long, List<CommentDto>> comments = commentRepository
+                .findLatestDtosByItemIdIn(itemIds, COMMENTS_PREVIEW_SIZE).stream()
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+        Map<Long, Long> commentCounts = commentRepository.countByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(CommentCountDto::getItemId, CommentCountDto::getCount));
+
+        return items.stream()
+                .map(item -> {
+                    ItemBookingSummary summary = summaries.get(item.getId());
+                    return ItemMapper.toItemBookingDto(item,
+                            summary == null ? null : toBookingDto(summary.getLastBooking()),
+                            summary == null ? null : toBookingDto(summary.getNextBooking()),
+                            userId,
+                            comments.getOrDefault(item.getId(), Collections.emptyList()),
+                            commentCounts.getOrDefault(item.getId(), 0L));
+                })
                 .collect(Collectors.toList());
     }
 
-    public List<Item> search(String text) {
+    /**
+     * Runs outside a service transaction so that callers coalesced onto an identical in-flight search
+     * wait without holding a connection; the repository call opens its own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Item> search(String text, int from, int size) {
         log.info("GET /items PARAMS -> {}", text);
 
-        if (text.isEmpty()) return Collections.emptyList();
-        return itemRepository.searchAllByTextInNameOrDescription(text);
+        if (text.isBlank()) return Collections.emptyList();
+        return searchFlights.execute(from + ":" + size + ":" + text, () -> List.copyOf(
+                itemRepository.searchAvailableByText(text, toContainsPattern(text), from, size)));
+    }
+
+    private List<ImportResultDto> importChunk(List<ItemDto> chunk, int offset, User owner) {
+        Set<Long> requestIds = chunk.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<ImportResultDto> results = new ArrayList<>(chunk.size());
+        List<Item> items = new ArrayList<>(chunk.size());
+        List<ImportResultDto> imported = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ItemDto itemDto = chunk.get(i);
+            String error = validator.validate(itemDto).stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining("; "));
+            if (error.isEmpty() && itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                error = "Request not found: " + itemDto.getRequestId();
+            }
+            if (!error.isEmpty()) {
+                results.add(ImportResultDto.failed(offset + i, error));
+                continue;
+            }
+            Item item = ItemMapper.dtoToItem(itemDto, owner, requests.get(itemDto.getRequestId()));
+            item.setId(0);
+            ImportResultDto result = ImportResultDto.imported(offset + i, null);
+            items.add(item);
+            imported.add(result);
+            results.add(result);
+        }
+
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+        for (int i = 0; i < items.size(); i++) {
+            imported.get(i).setId(items.get(i).getId());
+        }
+        if (!items.isEmpty()) {
+            userRepository.bumpItemsVersion(owner.getId());
+        }
+        detachChunk();
+        return results;
+    }
+
+    /**
+     * Flushes and detaches the imported chunk, so that a persistence context that outlives the chunk
+     * transaction doesn't accumulate every imported row and dirty-check all of them on each flush.
+     */
+    private void detachChunk() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static BookingDto toBookingDto(Booking booking) {
+        return booking == null ? null : BookingMapper.bookingToDto(booking);
+    }
+
+    private static String toContainsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("Id: " + userId));
+        return userService.findById(userId);
     }
 
     private Item findItemById(Long itemId) {
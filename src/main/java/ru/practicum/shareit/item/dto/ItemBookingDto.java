@@ -18,4 +18,5 @@ public class ItemBookingDto {
     private BookingDto lastBooking;
     private BookingDto nextBooking;
     private List<CommentDto> comments;
+    private long commentCount;
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -11,13 +12,15 @@ import java.util.List;
 @UtilityClass
 public class ItemMapper {
 
-    public static Item dtoToItem(ItemDto itemDto, User user) {
+    public static Item dtoToItem(ItemDto itemDto, User user, ItemRequest request) {
         return new Item(
                 itemDto.getId(),
                 itemDto.getName(),
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
-                user
+                user,
+                request,
+                null
         );
     }
 
@@ -27,10 +30,12 @@ public class ItemMapper {
         itemDto.setName(item.getName());
         itemDto.setDescription(item.getDescription());
         itemDto.setAvailable(item.getAvailable());
+        itemDto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
         return itemDto;
     }
 
-    public static ItemBookingDto toItemBookingDto(Item item, BookingDto lastBooking, BookingDto nextBooking, Long userId, List<CommentDto> comments) {
+    public static ItemBookingDto toItemBookingDto(Item item, BookingDto lastBooking, BookingDto nextBooking, Long userId,
+                                                  List<CommentDto> comments, long commentCount) {
 
         long itemOwnerId = item.getOwner().getId();
 
@@ -41,7 +46,8 @@ public class ItemMapper {
                 item.getAvailable(),
                 itemOwnerId == userId ? lastBooking : null,
                 itemOwnerId == userId ? nextBooking : null,
-                comments
+                comments,
+                commentCount
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemVersionDto {
+    private Long ownerId;
+    private Long version;
+    private Long summaryVersion;
+}
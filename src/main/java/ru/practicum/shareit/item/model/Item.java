@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 @Data
@@ -12,10 +14,20 @@ import ru.practicum.shareit.user.model.User;
 @NoArgsConstructor
 @Entity
 @Table(name = "items")
-@ToString(exclude = {"owner"})
+@ToString(exclude = {"owner", "request"})
+@NamedNativeQuery(name = "Item.findVersionById",
+        query = "SELECT i.owner_id, i.etag_version, s.version AS summary_version FROM items i " +
+                "LEFT JOIN item_booking_summaries s ON s.item_id = i.id WHERE i.id = :id",
+        resultSetMapping = "ItemVersionDto")
+@SqlResultSetMapping(name = "ItemVersionDto", classes = @ConstructorResult(targetClass = ItemVersionDto.class, columns = {
+        @ColumnResult(name = "owner_id", type = Long.class),
+        @ColumnResult(name = "etag_version", type = Long.class),
+        @ColumnResult(name = "summary_version", type = Long.class)
+}))
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private long id;
 
     private String name;
@@ -24,7 +36,18 @@ public class Item {
     @Column(name = "is_available")
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private ItemRequest request;
+
+    /**
+     * Optimistic lock of owner updates. The ETag has its own counter, {@code etag_version}, which is
+     * bumped by native queries only, so comments and renamed bookers don't fail concurrent updates.
+     */
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -1,21 +1,41 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT i " +
-            "FROM Item i " +
-            "WHERE ( LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))" +
-            "AND i.available = true")
-    List<Item> searchAllByTextInNameOrDescription(String text);
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
+
+    @Query(value = "SELECT i.* " +
+            "FROM items i " +
+            "WHERE i.is_available " +
+            "AND (i.name ILIKE :pattern OR i.description ILIKE :pattern) " +
+            "ORDER BY GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchAvailableByText(@Param("text") String text, @Param("pattern") String pattern,
+                                     @Param("from") int from, @Param("size") int size);
+
+    @Query("SELECT new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "FROM Item i WHERE i.request.id IN :requestIds")
+    List<ItemAnswerDto> findAnswersByRequestIds(@Param("requestIds") Collection<Long> requestIds);
 
     @Query("SELECT i FROM Item i WHERE i.owner.id = :id")
     List<Item> findAllByOwnerId(Long id);
+
+    @Modifying
+    @Query(value = "UPDATE items SET etag_version = etag_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpETagVersion(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+
+import java.util.Optional;
+
+public interface ItemRepositoryCustom {
+    /**
+     * Owner, ETag version and booking summary version of an item, see {@code Item.findVersionById}.
+     */
+    Optional<ItemVersionDto> findVersionById(Long id);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+
+import java.util.Optional;
+
+/**
+ * Runs the named native query on the {@link EntityManager}, see {@code CommentRepositoryImpl}.
+ */
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<ItemVersionDto> findVersionById(Long id) {
+        return entityManager.createNamedQuery("Item.findVersionById", ItemVersionDto.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+}
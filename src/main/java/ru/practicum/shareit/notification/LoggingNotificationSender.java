@@ -0,0 +1,17 @@
+package ru.practicum.shareit.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Writes notifications to the log until a mail or push channel is configured.
+ */
+@Slf4j
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+    @Override
+    public void send(User recipient, String message) {
+        log.info("Notification to user {}: {}", recipient.getId(), message);
+    }
+}
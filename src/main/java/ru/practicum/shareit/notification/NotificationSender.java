@@ -0,0 +1,10 @@
+package ru.practicum.shareit.notification;
+
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Delivers a message to a user. Called from outbox handlers, so a failure is retried with the event.
+ */
+public interface NotificationSender {
+    void send(User recipient, String message);
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the outbox and hands pending events to {@link OutboxEventHandler}s.
+ * <p>
+ * Every poll claims its batch with a lease of {@code shareit.outbox.lease}, so several instances can run
+ * the dispatcher side by side without handling an event twice. Events of an instance that dies are
+ * picked up again once their lease runs out; the lease has to outlast the handling of one batch.
+ * <p>
+ * Events of one item run sequentially on the same task, different items run in parallel on a
+ * bounded pool owned by the dispatcher. The next batch is only read once the current one is finished,
+ * so the number of in-flight events never exceeds the batch size. An event is marked processed after
+ * all of its handlers succeeded. A failed event is retried with exponential backoff, starting at
+ * {@code shareit.outbox.retry-delay}; until then the rest of that item's events waits behind it.
+ * <p>
+ * The pool is not a bean on purpose: any {@code Executor} bean makes Boot back off from its
+ * {@code applicationTaskExecutor}, which MVC async requests and the {@code virtual} profile rely on.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboxEventType, List<OutboxEventHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Duration retention;
+    private final Duration lease;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            List<OutboxEventHandler> handlers,
+                            @Value("${shareit.outbox.concurrency:4}") int concurrency,
+                            @Value("${shareit.outbox.batch-size:200}") int batchSize,
+                            @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${shareit.outbox.retry-delay:PT1S}") Duration retryDelay,
+                            @Value("${shareit.outbox.max-retry-delay:PT10M}") Duration maxRetryDelay,
+                            @Value("${shareit.outbox.retention:P1D}") Duration retention,
+                            @Value("${shareit.outbox.lease:PT5M}") Duration lease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = createExecutor(concurrency, batchSize);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.retention = retention;
+        this.lease = lease;
+        for (OutboxEventHandler handler : handlers) {
+            for (OutboxEventType type : handler.types()) {
+                this.handlers.computeIfAbsent(type, key -> new ArrayList<>()).add(handler);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay:PT1S}")
+    public void dispatch() {
+        List<OutboxEvent> events;
+        List<Long> processed;
+        do {
+            // Claim inside a read-write transaction so that the poll always goes to the primary
+            events = transactionTemplate.execute(status -> {
+                outboxEventRepository.lockClaims();
+                LocalDateTime now = LocalDateTime.now();
+                return outboxEventRepository.claimPending(maxAttempts, now, now.plus(lease), batchSize);
+            });
+            if (events == null || events.isEmpty()) return;
+
+            Map<Long, List<OutboxEvent>> byItem = events.stream()
+                    .collect(Collectors.groupingBy(OutboxEvent::getItemId, LinkedHashMap::new, Collectors.toList()));
+            List<CompletableFuture<List<Long>>> chains = byItem.values().stream()
+                    .map(chain -> CompletableFuture.supplyAsync(() -> handleInOrder(chain), executor))
+                    .toList();
+            processed = chains.stream()
+                    .map(CompletableFuture::join)
+                    .flatMap(List::stream)
+                    .toList();
+
+            if (!processed.isEmpty()) {
+                List<Long> ids = processed;
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxEventRepository.markProcessed(ids, LocalDateTime.now()));
+            }
+        } while (events.size() == batchSize && !processed.isEmpty());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.cleanup-delay:PT1H}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} processed outbox events", deleted);
+        }
+    }
+
+    /**
+     * Sized so that one batch always fits into the queue. Should it overflow anyway, the dispatcher
+     * thread runs the handler itself instead of dropping the events.
+     */
+    private static ThreadPoolTaskExecutor createExecutor(int concurrency, int batchSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(batchSize);
+        executor.setThreadNamePrefix("outbox-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * {@code retry-delay} doubled with every earlier failure, capped at {@code max-retry-delay}.
+     */
+    private Duration retryDelay(int failures) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(failures, 30));
+        return delay.compareTo(maxRetryDelay) > 0 ? maxRetryDelay : delay;
+    }
+
+    private List<Long> handleInOrder(List<OutboxEvent> chain) {
+        List<Long> processed = new ArrayList<>(chain.size());
+        for (int i = 0; i < chain.size(); i++) {
+            OutboxEvent event = chain.get(i);
+            try {
+                for (OutboxEventHandler handler : handlers.getOrDefault(event.getType(), List.of())) {
+                    handler.handle(event);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox event {} ({}) failed on attempt {}: {}", event.getId(), event.getType(),
+                        event.getAttempts() + 1, e.getMessage());
+                LocalDateTime nextAttempt = LocalDateTime.now().plus(retryDelay(event.getAttempts()));
+                List<Long> behind = chain.subList(i + 1, chain.size()).stream().map(OutboxEvent::getId).toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    outboxEventRepository.markFailed(event.getId(), String.valueOf(e.getMessage()), nextAttempt);
+                    if (!behind.isEmpty()) {
+                        outboxEventRepository.release(behind);
+                    }
+                });
+                meterRegistry.counter("shareit.outbox.events", "type", event.getType().name(), "result", "failed")
+                        .increment();
+                break;
+            }
+            processed.add(event.getId());
+            meterRegistry.counter("shareit.outbox.events", "type", event.getType().name(), "result", "processed")
+                    .increment();
+        }
+        return processed;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox;
+
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.Set;
+
+/**
+ * Asynchronous consumer of outbox events. Delivery is at-least-once, so handlers must be idempotent.
+ */
+public interface OutboxEventHandler {
+    Set<OutboxEventType> types();
+
+    void handle(OutboxEvent event);
+}
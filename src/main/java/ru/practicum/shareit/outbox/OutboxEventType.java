@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox;
+
+public enum OutboxEventType {
+    /**
+     * No longer recorded: nothing consumed it, the search index is updated by the database itself.
+     * Kept so that rows written before still load; the dispatcher marks them processed.
+     */
+    @Deprecated
+    ITEM_CREATED,
+    /**
+     * No longer recorded, see {@link #ITEM_CREATED}.
+     */
+    @Deprecated
+    ITEM_UPDATED,
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    BOOKING_EXPIRED
+}
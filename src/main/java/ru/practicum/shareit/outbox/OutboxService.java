@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void record(OutboxEventType type, Long aggregateId, Long itemId) {
+        outboxEventRepository.save(new OutboxEvent(null, type, aggregateId, itemId, LocalDateTime.now(),
+                null, 0, null, null));
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.outbox.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to a booking or an item, written in the same transaction as the change itself.
+ * {@code itemId} is the ordering key: events of one item are handled in {@code id} order.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events")
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private OutboxEventType type;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "created_date")
+    private LocalDateTime created;
+
+    @Column(name = "processed_date")
+    private LocalDateTime processed;
+
+    private int attempts;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    /**
+     * Earliest time of the next attempt after a failure, or the end of the lease while the event is
+     * claimed by a dispatcher; {@code null} otherwise.
+     */
+    @Column(name = "next_attempt_date")
+    private LocalDateTime nextAttempt;
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Serializes claims across instances until the end of the transaction. Without it a claim whose
+     * snapshot predates a concurrent claim would not see that claim's leases and could take the next
+     * event of an item whose earlier event is still being handled elsewhere.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock('outbox_events'::regclass::oid::bigint)", nativeQuery = true)
+    int lockClaims();
+
+    /**
+     * Claims up to {@code limit} pending events that are due by leasing them until {@code leaseUntil}, so
+     * that later claims skip them until they are processed, failed or the lease runs out. Events queued
+     * behind an earlier event of the same item that is leased or waiting for its retry are left out, so
+     * that the item's events stay in order. Has to run after {@link #lockClaims()}, in its own statement.
+     */
+    @Query(value = "WITH claimed AS (" +
+            "UPDATE outbox_events SET next_attempt_date = :leaseUntil WHERE id = ANY (ARRAY(" +
+            "SELECT o.id FROM outbox_events o WHERE o.processed_date IS NULL AND o.attempts < :maxAttempts " +
+            "AND (o.next_attempt_date IS NULL OR o.next_attempt_date <= :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.item_id = o.item_id AND e.id < o.id " +
+            "AND e.processed_date IS NULL AND e.attempts < :maxAttempts AND e.next_attempt_date > :now) " +
+            "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED)) " +
+            "RETURNING *) " +
+            "SELECT * FROM claimed ORDER BY id", nativeQuery = true)
+    List<OutboxEvent> claimPending(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+                                   @Param("leaseUntil") LocalDateTime leaseUntil, @Param("limit") int limit);
+
+    /**
+     * Gives claimed events back without an attempt, used for the events of an item behind one that failed.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET next_attempt_date = NULL WHERE id IN (:ids)", nativeQuery = true)
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET processed_date = :now WHERE id IN (:ids)", nativeQuery = true)
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET attempts = attempts + 1, last_error = :error, " +
+            "next_attempt_date = :nextAttempt WHERE id = :id", nativeQuery = true)
+    int markFailed(@Param("id") Long id, @Param("error") String error,
+                   @Param("nextAttempt") LocalDateTime nextAttempt);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE processed_date < :before", nativeQuery = true)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests with 429 once the caller exhausted its bucket for the endpoint. Callers are told
+ * apart by {@code X-Sharer-User-Id}, anonymous ones by remote address.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    private final String endpoint;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String user = request.getHeader(HEADER);
+        String key = user != null ? "user:" + user.trim() : "ip:" + request.getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        meterRegistry.counter("shareit.ratelimit.rejected", "endpoint", endpoint).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        return false;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key with {@code capacity} tokens refilled at {@code refillPerSecond}.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the generic cell rate algorithm), so acquiring a token is one compare-and-set without locks.
+ * Idle buckets are full by definition and are evicted after {@code idleTimeout}. The key comes from
+ * a client-supplied header, so the number of buckets is capped as well; evicting a bucket early only
+ * refills it.
+ */
+public class RateLimiter {
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(int capacity, double refillPerSecond, Duration idleTimeout) {
+        this(capacity, refillPerSecond, idleTimeout, MAX_BUCKETS, System::nanoTime);
+    }
+
+    /**
+     * For tests: a smaller bucket cap and a clock that can be moved by hand.
+     */
+    RateLimiter(int capacity, double refillPerSecond, Duration idleTimeout, long maxBuckets, LongSupplier nanoTime) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxBuckets)
+                .build();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current == Long.MIN_VALUE ? now : current, now) + emissionIntervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of buckets held after pending evictions have run.
+     */
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag on the replica and takes it out of rotation while the lag
+ * exceeds the configured tolerance or the replica cannot be reached.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private volatile boolean replicaUsable = true;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.replica.lag-check-delay:PT5S}")
+    public void check() {
+        if (lagQuery == null || lagQuery.isBlank()) return;
+
+        boolean usable;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLag.toMillis();
+            if (!usable) {
+                log.warn("Replica lag {}s exceeds {}, reading from primary", lagSeconds, maxLag);
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            log.warn("Replica lag check failed, reading from primary: {}", e.getMessage());
+        }
+        if (usable && !replicaUsable) {
+            log.info("Replica caught up, routing read-only transactions to it again");
+        }
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.replica;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica unless the replica lags behind or the current
+ * request has to read its own writes. Must be wrapped in a {@code LazyConnectionDataSourceProxy},
+ * otherwise the connection is taken before the transaction is marked read-only.
+ */
+@RequiredArgsConstructor
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && lagMonitor.isReplicaUsable()
+                && !ReadYourWrites.isPinned()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -1,12 +1,41 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+    private final ItemRequestService itemRequestService;
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @PostMapping
+    public ItemRequestDto create(@RequestBody @Valid ItemRequestDto itemRequestDto,
+                                 @RequestHeader(HEADER) long userId) {
+        return itemRequestService.create(itemRequestDto, userId);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> getOwn(@RequestHeader(HEADER) long userId) {
+        return itemRequestService.getOwn(userId);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestDto> getAll(@RequestHeader(HEADER) long userId,
+                                       @RequestParam(defaultValue = "0") @Min(0) int from,
+                                       @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int size) {
+        return itemRequestService.getAll(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestDto getById(@PathVariable Long requestId, @RequestHeader(HEADER) long userId) {
+        return itemRequestService.getById(requestId, userId);
+    }
 }
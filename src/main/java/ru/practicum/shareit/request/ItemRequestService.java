@@ -0,0 +1,80 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.exception.ItemRequestNotFoundException;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+
+    @Transactional
+    public ItemRequestDto create(ItemRequestDto itemRequestDto, long userId) {
+        log.info("POST /requests");
+
+        User user = userService.findById(userId);
+        ItemRequest itemRequest = itemRequestRepository
+                .save(ItemRequestMapper.dtoToItemRequest(itemRequestDto, user, LocalDateTime.now()));
+        return ItemRequestMapper.itemRequestToDto(itemRequest, Collections.emptyList());
+    }
+
+    public List<ItemRequestDto> getOwn(long userId) {
+        log.info("GET /requests HEADER -> {}", userId);
+
+        userService.getById(userId);
+        return withAnswers(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId));
+    }
+
+    public List<ItemRequestDto> getAll(long userId, int from, int size) {
+        log.info("GET /requests/all HEADER -> {}", userId);
+
+        userService.getById(userId);
+        return withAnswers(itemRequestRepository
+                .findAllByRequesterIdNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size)));
+    }
+
+    public ItemRequestDto getById(Long requestId, long userId) {
+        log.info("GET /requests/{}", requestId);
+
+        userService.getById(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException("Id: " + requestId));
+        return ItemRequestMapper.itemRequestToDto(itemRequest,
+                itemRepository.findAnswersByRequestIds(List.of(requestId)));
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) return Collections.emptyList();
+
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.itemRequestToDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+}
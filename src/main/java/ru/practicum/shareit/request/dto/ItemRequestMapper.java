@@ -0,0 +1,30 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@UtilityClass
+public class ItemRequestMapper {
+
+    public static ItemRequest dtoToItemRequest(ItemRequestDto itemRequestDto, User requester, LocalDateTime created) {
+        return new ItemRequest(
+                null,
+                itemRequestDto.getDescription(),
+                requester,
+                created
+        );
+    }
+
+    public static ItemRequestDto itemRequestToDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
+        return new ItemRequestDto(
+                itemRequest.getId(),
+                itemRequest.getDescription(),
+                itemRequest.getCreated(),
+                items
+        );
+    }
+}
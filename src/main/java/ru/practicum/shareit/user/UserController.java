@@ -25,7 +25,7 @@ public class UserController {
 
     @GetMapping("{userId}")
     public UserDto getById(@PathVariable long userId) {
-        return UserMapper.userToDto(userService.getById(userId));
+        return UserMapper.snapshotToDto(userService.getById(userId));
     }
 
     @GetMapping
@@ -1,21 +1,28 @@
 package ru.practicum.shareit.user;
 
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserService {
@@ -28,9 +35,20 @@ public class UserService {
         return userRepository.save(UserMapper.dtoToUser(user));
     }
 
-    public User getById(long userId) {
+    /**
+     * Cached, so it returns a snapshot: a cached entity would be detached and shared between requests.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    public UserSnapshot getById(long userId) {
         log.info("GET /users/{}", userId);
 
+        return UserMapper.userToSnapshot(findById(userId));
+    }
+
+    /**
+     * The user entity, for writes that reference it. Not cached.
+     */
+    public User findById(long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Id: " + userId));
     }
@@ -42,12 +60,17 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public User update(Long userId, Map<String, Object> params) {
         log.info("PATCH /users/{}", userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Id: " + userId));
 
+        // Only the name is rendered on items and bookings of other users
+        if (params.containsKey("name") && !Objects.equals(params.get("name"), user.getName())) {
+            userRepository.bumpVersionsTouchedBy(userId);
+        }
         params.forEach((key, value) -> {
             switch (key) {
                 case "name":
@@ -63,9 +86,11 @@ public class UserService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void deleteById(long userId) {
         log.info("DELETE /users/{}", userId);
 
+        userRepository.bumpVersionsTouchedBy(userId);
         userRepository.deleteById(userId);
     }
 
@@ -25,6 +25,18 @@ public class UserMapper {
         return userDto;
     }
 
+    public static UserSnapshot userToSnapshot(User user) {
+        return new UserSnapshot(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public static UserDto snapshotToDto(UserSnapshot user) {
+        UserDto userDto = new UserDto();
+        userDto.setId(user.getId());
+        userDto.setName(user.getName());
+        userDto.setEmail(user.getEmail());
+        return userDto;
+    }
+
     public static List<UserDto> userToDto(List<User> users) {
         List<UserDto> userDtos = new ArrayList<>();
         for (User user : users) {
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+/**
+ * Immutable copy of a user, as handed out by the user cache.
+ */
+@Value
+public class UserSnapshot {
+    long id;
+    String name;
+    String email;
+}
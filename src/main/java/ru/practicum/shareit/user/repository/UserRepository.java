@@ -1,10 +1,49 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * {@code items_version} and {@code bookings_version} are counters behind the ETags of a user's item
+ * list and booking list. They are not mapped on {@link User} and only change through these queries.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query(value = "SELECT items_version FROM users WHERE id = :id", nativeQuery = true)
+    Optional<Long> findItemsVersionById(@Param("id") Long id);
+
+    @Query(value = "SELECT bookings_version FROM users WHERE id = :id", nativeQuery = true)
+    Optional<Long> findBookingsVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE users SET items_version = items_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpItemsVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "UPDATE users SET bookings_version = bookings_version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int bumpBookingsVersion(@Param("ids") Collection<Long> ids);
 
-}
\ No newline at end of file
+    /**
+     * Invalidates every ETag that renders data of the given user: items the user commented on or booked,
+     * the item lists of their owners, the user's own lists and the booking lists of everyone who booked
+     * one of the user's items. Used before the user is renamed or deleted.
+     */
+    @Modifying
+    @Query(value = "WITH touched AS (" +
+            "SELECT item_id FROM comments WHERE author_id = :id " +
+            "UNION SELECT item_id FROM bookings WHERE booker_id = :id), " +
+            "bumped AS (UPDATE items SET etag_version = etag_version + 1 " +
+            "WHERE id IN (SELECT item_id FROM touched) RETURNING owner_id) " +
+            "UPDATE users SET items_version = items_version + 1, bookings_version = bookings_version + 1 " +
+            "WHERE id = :id OR id IN (SELECT owner_id FROM bumped) " +
+            "OR id IN (SELECT b.booker_id FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = :id)",
+            nativeQuery = true)
+    int bumpVersionsTouchedBy(@Param("id") Long id);
+}
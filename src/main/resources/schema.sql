@@ -1,7 +1,13 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    email VARCHAR(255) NOT NULL unique
+    email VARCHAR(255) NOT NULL unique,
+    items_version BIGINT NOT NULL DEFAULT 0,
+    bookings_version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS requests (
@@ -11,21 +17,33 @@ CREATE TABLE IF NOT EXISTS requests (
     created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('items_seq') NOT NULL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     is_available BOOLEAN NOT NULL,
-    owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE
+    owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    request_id BIGINT REFERENCES requests(id) ON DELETE SET NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    etag_version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+    id BIGINT DEFAULT nextval('bookings_seq') NOT NULL PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     booker_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-    status VARCHAR(10) NOT NULL
+    status VARCHAR(10) NOT NULL,
+    phase VARCHAR(10) NOT NULL DEFAULT 'FUTURE',
+    CONSTRAINT bookings_approved_no_overlap EXCLUDE USING gist (
+        item_id WITH =,
+        tsrange(start_date, end_date) WITH &&
+    ) WHERE (status = 'APPROVED')
 );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -34,4 +52,70 @@ CREATE TABLE IF NOT EXISTS comments (
     item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
     author_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id BIGINT NOT NULL PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+    last_booking_id BIGINT REFERENCES bookings(id) ON DELETE SET NULL,
+    next_booking_id BIGINT REFERENCES bookings(id) ON DELETE SET NULL,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT DEFAULT nextval('outbox_events_seq') NOT NULL PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    processed_date TIMESTAMP WITHOUT TIME ZONE,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    next_attempt_date TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_phase_start ON bookings (booker_id, phase, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_phase_start ON bookings (item_id, phase, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_future_start ON bookings (start_date) WHERE phase = 'FUTURE';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_current_end ON bookings (end_date) WHERE phase = 'CURRENT';
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id) WHERE request_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_next_start ON item_booking_summaries (next_start) WHERE next_start IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (id) WHERE processed_date IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_item_pending ON outbox_events (item_id, id) WHERE processed_date IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_processed ON outbox_events (processed_date) WHERE processed_date IS NOT NULL;
@@ -0,0 +1,66 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.AvailabilityException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Cached reads never hand out entities and writes see the current state of the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CacheConsistencyTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void userSnapshotIsCachedUntilTheUserChanges() {
+        long user = new TestData(jdbcTemplate).user("cached-" + UUID.randomUUID());
+
+        UserSnapshot first = userService.getById(user);
+        assertThat(userService.getById(user)).isSameAs(first);
+
+        userService.update(user, Map.of("email", "cached-" + user + "@mail.ru"));
+
+        assertThat(userService.getById(user).getEmail()).isEqualTo("cached-" + user + "@mail.ru");
+        assertThat(first.getEmail()).isNotEqualTo("cached-" + user + "@mail.ru");
+    }
+
+    @Test
+    void bookingSeesAvailabilityChangedAfterTheItemWasRead() {
+        TestData data = new TestData(jdbcTemplate);
+        String suffix = UUID.randomUUID().toString();
+        long owner = data.user("availability-owner-" + suffix);
+        long booker = data.user("availability-booker-" + suffix);
+        long item = data.items(owner, 1).get(0);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        bookingService.create(new BookingDto(null, start, start.plusDays(1), item, null, null), booker);
+        itemService.update(item, owner, Map.of("available", false));
+
+        assertThatThrownBy(() -> bookingService.create(
+                new BookingDto(null, start.plusDays(5), start.plusDays(6), item, null, null), booker))
+                .isInstanceOf(AvailabilityException.class);
+    }
+}
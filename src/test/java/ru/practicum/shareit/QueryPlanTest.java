@@ -0,0 +1,259 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.postgresql.Driver;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingSummaryService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.metrics.QueryCountInspector;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Plans of the statements the services and repositories actually run, against a seeded Postgres.
+ * Every case calls the application code inside a transaction that is rolled back, captures the SQL
+ * Hibernate prepared with {@link QueryCountInspector} and runs {@code EXPLAIN (GENERIC_PLAN)} on each
+ * statement, the plan Postgres falls back to for a prepared statement. None of them may scan a large
+ * table sequentially; a failure usually means an index went missing or a query no longer matches one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final Pattern SEQ_SCAN =
+            Pattern.compile("Seq Scan on (bookings|items|comments|requests|outbox_events)\\b");
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private JdbcConnectionDetails connection;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingSummaryService bookingSummaryService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private long owner;
+    private long booker;
+    private long stranger;
+    private long item;
+    private long waitingBooking;
+    private long request;
+    private ScrollPosition secondPage;
+    private LocalDateTime now;
+    private JdbcTemplate explainTemplate;
+
+    @BeforeAll
+    void seed() {
+        SimpleDriverDataSource simpleQueries = new SimpleDriverDataSource(new Driver(), connection.getJdbcUrl(),
+                connection.getUsername(), connection.getPassword());
+        Properties properties = new Properties();
+        properties.setProperty("preferQueryMode", "simple");
+        simpleQueries.setConnectionProperties(properties);
+        explainTemplate = new JdbcTemplate(simpleQueries);
+
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'user ' || g, 'user' || g || '@mail.ru' FROM generate_series(1, 5000) g");
+        jdbcTemplate.update("INSERT INTO requests (description, requester_id, created_date) " +
+                "SELECT 'Нужна дрель ' || g, 1 + g % 5000, LOCALTIMESTAMP - g * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 20000) g");
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id, request_id) " +
+                "SELECT 'Дрель ' || g, 'Аккумуляторная дрель ' || g, g % 10 <> 0, 1 + g % 5000, " +
+                "CASE WHEN g % 5 = 0 THEN 1 + g % 20000 END " +
+                "FROM generate_series(1, 50000) g");
+        // Four one-day bookings per item, ten days apart: two in the past, two in the future
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "SELECT LOCALTIMESTAMP + (n * 10 - 15) * INTERVAL '1 day', " +
+                "LOCALTIMESTAMP + (n * 10 - 14) * INTERVAL '1 day', i.id, " +
+                "1 + (i.id / 50 * 4 + n) % 5000, " +
+                "CASE WHEN n = 3 THEN 'WAITING' WHEN i.id % 7 = 0 THEN 'REJECTED' ELSE 'APPROVED' END, " +
+                "CASE WHEN n < 2 THEN 'PAST' ELSE 'FUTURE' END " +
+                "FROM items i CROSS JOIN generate_series(0, 3) n");
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created_date) " +
+                "SELECT 'Комментарий ' || n, i.id, 1 + (i.id / 50 + n) % 5000, LOCALTIMESTAMP - n * INTERVAL '1 day' " +
+                "FROM items i CROSS JOIN generate_series(1, 2) n");
+        jdbcTemplate.update("INSERT INTO item_booking_summaries (item_id, next_start) " +
+                "SELECT id, CASE WHEN id % 7 = 0 THEN LOCALTIMESTAMP + INTERVAL '5 days' END FROM items");
+        jdbcTemplate.update("INSERT INTO outbox_events (type, aggregate_id, item_id, created_date, processed_date) " +
+                "SELECT 'BOOKING_CREATED', b.id, b.item_id, LOCALTIMESTAMP - INTERVAL '2 days', " +
+                "CASE WHEN b.id % 100 <> 0 THEN LOCALTIMESTAMP - INTERVAL '2 days' END FROM bookings b");
+        // Also flushes the pending lists of the trigram indexes, which the planner would otherwise price in
+        jdbcTemplate.execute("VACUUM ANALYZE");
+
+        owner = 42;
+        // An available item that has an approved booking in the past, the first of its four
+        item = jdbcTemplate.queryForObject("SELECT MIN(i.id) FROM items i WHERE i.owner_id = ? " +
+                "AND i.is_available AND i.id % 7 <> 0", Long.class, owner);
+        booker = jdbcTemplate.queryForObject("SELECT booker_id FROM bookings WHERE item_id = ? " +
+                "ORDER BY start_date LIMIT 1", Long.class, item);
+        stranger = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users WHERE id NOT IN (?, ?)",
+                Long.class, owner, booker);
+        waitingBooking = jdbcTemplate.queryForObject("SELECT id FROM bookings WHERE item_id = ? " +
+                "AND status = 'WAITING'", Long.class, item);
+        request = jdbcTemplate.queryForObject("SELECT MIN(request_id) FROM items", Long.class);
+        Map<String, Object> first = jdbcTemplate.queryForMap("SELECT start_date, id FROM bookings " +
+                "WHERE booker_id = ? ORDER BY start_date DESC, id DESC LIMIT 1", booker);
+        secondPage = ScrollPosition.forward(Map.of(
+                "start", ((Timestamp) first.get("start_date")).toLocalDateTime(), "id", first.get("id")));
+        now = LocalDateTime.now();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("calls")
+    void doesNotScanLargeTables(String name, Runnable call) {
+        List<String> statements = capture(call);
+
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan).as(sql + "\n" + plan).doesNotContainPattern(SEQ_SCAN);
+        }
+    }
+
+    /**
+     * The search pattern decides whether the trigram indexes pay off, so Postgres keeps planning the
+     * search for each pattern instead of settling on the generic plan, which has to assume a scan.
+     */
+    @Test
+    void searchUsesTrigramIndexes() {
+        List<String> statements = capture(() -> itemService.search("4242", 0, 100));
+
+        assertThat(statements).hasSize(1);
+        String plan = explain(statements.get(0), "'%4242%'", "'%4242%'", "'4242'", "'4242'", 100, 0);
+        assertThat(plan).as(plan).contains("idx_items_name_trgm").doesNotContainPattern(SEQ_SCAN);
+    }
+
+    Stream<Arguments> calls() {
+        Stream<Arguments> bookerStates = Arrays.stream(BookingState.values())
+                .map(state -> arguments("bookings of booker, " + state,
+                        (Runnable) () -> bookingService.getByUser(booker, state, ScrollPosition.keyset(), 100)));
+        Stream<Arguments> ownerStates = Arrays.stream(BookingState.values())
+                .map(state -> arguments("bookings of owner, " + state,
+                        (Runnable) () -> bookingService.getByOwner(owner, state, ScrollPosition.keyset(), 100)));
+        Stream<Arguments> others = Stream.of(
+                call("second page of booker", () -> bookingService.getByUser(booker, BookingState.ALL, secondPage, 100)),
+                call("second page of owner", () -> bookingService.getByOwner(owner, BookingState.ALL, secondPage, 100)),
+                call("booking list ETag", () -> bookingService.getETag(booker, BookingState.ALL)),
+                call("booking by id", () -> bookingService.getById(waitingBooking, owner)),
+                call("create booking", () -> bookingService.create(new BookingDto(null, now.plusDays(100),
+                        now.plusDays(101), item, null, null), stranger)),
+                call("approve booking", () -> bookingService.approve(waitingBooking, true, owner)),
+                call("expire waiting", () -> bookingRepository.expireWaiting(now, 500)),
+                call("start future", () -> bookingRepository.startFuture(now, 500)),
+                call("finish current", () -> bookingRepository.finishCurrent(now, 500)),
+                call("refresh summary", () -> bookingSummaryService.refresh(List.of(item))),
+                call("refresh due summaries", () -> bookingSummaryService.refreshDue()),
+                call("item by id", () -> itemService.getById(item, owner)),
+                call("item ETag", () -> itemService.getETag(item, owner)),
+                call("items of owner", () -> itemService.allItemsFromUser(owner)),
+                call("item list ETag", () -> itemService.getItemsETag(owner)),
+                call("comment page", () -> itemService.getComments(item, 0, 20)),
+                call("comment", () -> itemService.comment(item, booker, new Comment(null, "Отлично", null, null, null))),
+                call("update item", () -> itemService.update(item, owner, Map.of("name", "Перфоратор"))),
+                call("own requests", () -> itemRequestService.getOwn(owner)),
+                call("all requests", () -> itemRequestService.getAll(owner, 0, 20)),
+                call("request by id", () -> itemRequestService.getById(request, owner)),
+                call("rename user", () -> userService.update(booker, Map.of("name", "booker"))),
+                call("claim outbox events", () -> outboxEventRepository.claimPending(10, now, now.plusMinutes(5), 200)),
+                call("release outbox events", () -> outboxEventRepository.release(List.of(1L))),
+                call("mark outbox events processed", () -> outboxEventRepository.markProcessed(List.of(1L), now)),
+                call("clean up outbox events", () -> outboxEventRepository.deleteProcessedBefore(now.minusDays(1))),
+                call("due summaries", () -> summaryRepository.findDueItemIds(now, 1000)));
+        return Stream.of(bookerStates, ownerStates, others).flatMap(calls -> calls);
+    }
+
+    private static Arguments call(String name, Runnable call) {
+        return arguments(name, call);
+    }
+
+    /**
+     * Runs the call in a transaction that is always rolled back and returns the statements it prepared.
+     */
+    private List<String> capture(Runnable call) {
+        List<String> statements;
+        QueryCountInspector.capture();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                call.run();
+            });
+        } finally {
+            statements = QueryCountInspector.captured();
+        }
+        return statements;
+    }
+
+    /**
+     * Generic plan of the statement, or its plan for the given SQL literals, one per placeholder. The
+     * driver sends statements through the extended protocol, which rejects {@code $n} placeholders without
+     * bound values, so the plans are asked for over a connection in simple query mode.
+     */
+    private String explain(String sql, Object... literals) {
+        Matcher parameters = PARAMETER.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        int index = 0;
+        while (parameters.find()) {
+            String value = literals.length == 0 ? "$" + (index + 1) : String.valueOf(literals[index]);
+            parameters.appendReplacement(bound, Matcher.quoteReplacement(value));
+            index++;
+        }
+        parameters.appendTail(bound);
+        String explain = literals.length == 0 ? "EXPLAIN (GENERIC_PLAN) " : "EXPLAIN ";
+        return String.join("\n", explainTemplate.queryForList(explain + bound, String.class));
+    }
+}
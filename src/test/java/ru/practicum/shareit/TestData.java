@@ -0,0 +1,77 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the database through JDBC, bypassing the entity date validation so that past bookings can be
+ * inserted.
+ */
+@RequiredArgsConstructor
+public class TestData {
+    private final JdbcTemplate jdbc;
+
+    public long user(String name) {
+        String email = name + "@mail.ru";
+        jdbc.update("INSERT INTO users (name, email) VALUES (?, ?)", name, email);
+        return jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    public List<Long> items(long ownerId, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Дрель " + i, "Аккумуляторная дрель " + i, true, ownerId});
+        }
+        jdbc.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, version) " +
+                "VALUES (NEXT VALUE FOR items_seq, ?, ?, ?, ?, 0)", rows);
+        return jdbc.queryForList("SELECT id FROM items WHERE owner_id = ? ORDER BY id", Long.class, ownerId);
+    }
+
+    /**
+     * Approved bookings of every item, half of them in the past and half in the future of {@code now}.
+     */
+    public void bookings(List<Long> itemIds, long bookerId, int perItem, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(itemIds.size() * perItem);
+        for (Long itemId : itemIds) {
+            for (int b = 0; b < perItem; b++) {
+                LocalDateTime start = now.plusDays((b - perItem / 2) * 3L + 1);
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        itemId, bookerId, start.isAfter(now) ? "FUTURE" : "PAST"});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, 'APPROVED', ?)", rows);
+    }
+
+    public void comments(List<Long> itemIds, long authorId, int perItem, LocalDateTime now) {
+        List<Object[]> rows = new ArrayList<>(itemIds.size() * perItem);
+        for (Long itemId : itemIds) {
+            for (int c = 0; c < perItem; c++) {
+                rows.add(new Object[]{"Комментарий " + c, itemId, authorId, Timestamp.valueOf(now.minusDays(c))});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO comments (text, item_id, author_id, created_date) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Booking summaries of all items of the owner, as {@code BookingSummaryService} would compute them.
+     */
+    public void summaries(long ownerId, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        jdbc.update("INSERT INTO item_booking_summaries (item_id, last_booking_id, next_booking_id, next_start, version) " +
+                        "SELECT i.id, " +
+                        "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                        "AND b.start_date <= ? ORDER BY b.start_date DESC LIMIT 1), " +
+                        "(SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                        "AND b.start_date >= ? ORDER BY b.start_date LIMIT 1), " +
+                        "(SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' " +
+                        "AND b.start_date >= ?), 0 " +
+                        "FROM items i WHERE i.owner_id = ?",
+                at, at, at, ownerId);
+    }
+}
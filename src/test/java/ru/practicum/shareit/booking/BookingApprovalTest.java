@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.exception.BadDateException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Approval runs as a bulk update, which skips the entity callbacks, so the date check has to be part of it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BookingApprovalTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long owner;
+    private long booker;
+    private long item;
+
+    @BeforeEach
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        String suffix = UUID.randomUUID().toString();
+        owner = data.user("approval-owner-" + suffix);
+        booker = data.user("approval-booker-" + suffix);
+        item = data.items(owner, 1).get(0);
+    }
+
+    @Test
+    void approvesFutureBooking() {
+        long booking = waiting(LocalDateTime.now().plusDays(1));
+
+        assertThat(bookingService.approve(booking, true, owner).getStatus()).isEqualTo(BookingStatus.APPROVED);
+    }
+
+    @Test
+    void startedBookingCannotBeApprovedOrRejected() {
+        long booking = waiting(LocalDateTime.now().minusHours(1));
+
+        assertThatThrownBy(() -> bookingService.approve(booking, true, owner)).isInstanceOf(BadDateException.class);
+        assertThatThrownBy(() -> bookingService.approve(booking, false, owner)).isInstanceOf(BadDateException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, booking))
+                .isEqualTo("WAITING");
+    }
+
+    private long waiting(LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                        "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, 'WAITING', 'FUTURE')",
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)), item, booker);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM bookings WHERE item_id = ?", Long.class, item);
+    }
+}
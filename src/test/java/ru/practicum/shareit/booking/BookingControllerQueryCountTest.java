@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Number of SQL statements per booking read endpoint. Bookings are fetched together with their item and
+ * booker, so the count does not depend on the number of bookings returned.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingControllerQueryCountTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long owner;
+    private long booker;
+    private long lonelyOwner;
+    private long lonelyBooker;
+    private long bookingId;
+
+    @BeforeAll
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        LocalDateTime now = LocalDateTime.now();
+        owner = data.user("booking-queries-owner");
+        booker = data.user("booking-queries-booker");
+        data.bookings(data.items(owner, 30), booker, 4, now);
+
+        lonelyOwner = data.user("booking-queries-lonely-owner");
+        lonelyBooker = data.user("booking-queries-lonely-booker");
+        data.bookings(data.items(lonelyOwner, 1), lonelyBooker, 1, now);
+
+        bookingId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM bookings WHERE booker_id = ?", Long.class, booker);
+    }
+
+    @Test
+    void getById() throws Exception {
+        // user check, booking with item and booker
+        assertThat(countQueries("/bookings/{id}", get("/bookings/{id}", bookingId).header(HEADER, booker))).isEqualTo(2);
+    }
+
+    @Test
+    void getByUser() throws Exception {
+        // ETag, user check, bookings with items and bookers
+        assertThat(countQueries("/bookings", get("/bookings").header(HEADER, booker), 120)).isEqualTo(3);
+        assertThat(countQueries("/bookings", get("/bookings").header(HEADER, lonelyBooker), 1)).isEqualTo(3);
+        assertThat(countQueries("/bookings", get("/bookings").param("size", "100").header(HEADER, booker), 100))
+                .isEqualTo(3);
+    }
+
+    @Test
+    void getByOwner() throws Exception {
+        // user check, bookings with items and bookers
+        assertThat(countQueries("/bookings/owner", get("/bookings/owner").header(HEADER, owner), 120)).isEqualTo(2);
+        assertThat(countQueries("/bookings/owner", get("/bookings/owner").header(HEADER, lonelyOwner), 1)).isEqualTo(2);
+        assertThat(countQueries("/bookings/owner", get("/bookings/owner").param("size", "100").header(HEADER, owner), 100))
+                .isEqualTo(2);
+    }
+
+    /**
+     * Statements of one request, as recorded by {@code QueryCountInterceptor} for the endpoint's URI pattern.
+     */
+    private long countQueries(String uri, MockHttpServletRequestBuilder request) throws Exception {
+        double before = totalQueries(uri);
+        mockMvc.perform(request).andExpect(status().isOk());
+        return Math.round(totalQueries(uri) - before);
+    }
+
+    private long countQueries(String uri, MockHttpServletRequestBuilder request, int expectedSize) throws Exception {
+        double before = totalQueries(uri);
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedSize));
+        return Math.round(totalQueries(uri) - before);
+    }
+
+    private double totalQueries(String uri) {
+        DistributionSummary summary = meterRegistry.find("shareit.http.queries")
+                .tags("method", "GET", "uri", uri)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
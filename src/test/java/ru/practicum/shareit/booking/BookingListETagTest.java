@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GET of the booker's booking list.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingListETagTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long owner;
+    private long booker;
+    private long itemId;
+
+    @BeforeEach
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        String suffix = UUID.randomUUID().toString();
+        owner = data.user("etag-owner-" + suffix);
+        booker = data.user("etag-booker-" + suffix);
+        List<Long> itemIds = data.items(owner, 2);
+        itemId = itemIds.get(0);
+        data.bookings(itemIds, booker, 2, LocalDateTime.now());
+    }
+
+    @Test
+    void unchangedListIsNotModified() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(get("/bookings").header(HEADER, booker).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void itemRenameChangesTheETag() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(patch("/items/{id}", itemId).header(HEADER, owner)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"name\": \"Перфоратор\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/bookings").header(HEADER, booker).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].item.name", hasItem("Перфоратор")));
+    }
+
+    @Test
+    void emailChangeKeepsTheETag() throws Exception {
+        String etag = etag();
+
+        mockMvc.perform(patch("/users/{id}", booker)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"email\": \"etag-" + booker + "@mail.ru\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/bookings").header(HEADER, booker).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void timeDependentStatesHaveNoETag() throws Exception {
+        for (BookingState state : BookingState.values()) {
+            mockMvc.perform(get("/bookings").header(HEADER, booker).param("state", state.name()))
+                    .andExpect(status().isOk())
+                    .andExpect(state.dependsOnTime()
+                            ? header().doesNotExist(HttpHeaders.ETAG)
+                            : header().exists(HttpHeaders.ETAG));
+        }
+    }
+
+    private String etag() throws Exception {
+        String etag = mockMvc.perform(get("/bookings").header(HEADER, booker))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+}
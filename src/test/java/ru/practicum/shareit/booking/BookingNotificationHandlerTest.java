@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Booking events recorded by {@link BookingService} reach the owner and the booker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BookingNotificationHandlerTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> sent = new ArrayList<>();
+    private BookingNotificationHandler handler;
+    private long owner;
+    private long booker;
+    private long item;
+
+    @BeforeEach
+    void seed() {
+        handler = new BookingNotificationHandler(bookingRepository,
+                (recipient, message) -> sent.add(recipient.getId() + ": " + message));
+        TestData data = new TestData(jdbcTemplate);
+        String suffix = UUID.randomUUID().toString();
+        owner = data.user("notified-owner-" + suffix);
+        booker = data.user("notified-booker-" + suffix);
+        item = data.items(owner, 1).get(0);
+    }
+
+    @Test
+    void ownerHearsOfTheRequestAndBookerOfTheAnswer() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long booking = bookingService.create(new BookingDto(null, start, start.plusDays(1), item, null, null), booker)
+                .getId();
+        bookingService.approve(booking, false, owner);
+
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId() == booking)
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .toList();
+        assertThat(events).extracting(OutboxEvent::getType)
+                .containsExactly(OutboxEventType.BOOKING_CREATED, OutboxEventType.BOOKING_REJECTED);
+        events.forEach(event -> transactionTemplate.executeWithoutResult(status -> handler.handle(event)));
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0)).startsWith(owner + ": Новый запрос");
+        assertThat(sent.get(1)).startsWith(booker + ": Бронирование отклонено");
+    }
+
+    @Test
+    void deletedBookingIsSkipped() {
+        handler.handle(new OutboxEvent(null, OutboxEventType.BOOKING_APPROVED, -1L, item, LocalDateTime.now(),
+                null, 0, null, null));
+
+        assertThat(sent).isEmpty();
+    }
+}
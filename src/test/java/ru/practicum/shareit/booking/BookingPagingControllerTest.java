@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.exception.BadCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging of the booking lists. The seeded bookings of different items share their start dates,
+ * so pages have to break ties by id.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingPagingControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long owner;
+    private long booker;
+
+    @BeforeAll
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        owner = data.user("paging-owner");
+        booker = data.user("paging-booker");
+        data.bookings(data.items(owner, 5), booker, 5, LocalDateTime.now());
+    }
+
+    @Test
+    void cursorWalksTheWholeListNewestFirst() throws Exception {
+        List<JsonNode> all = list("/bookings", booker);
+        assertThat(all).hasSize(25);
+
+        assertThat(walk("/bookings", booker, 10)).containsExactlyElementsOf(ids(all));
+        assertThat(walk("/bookings/owner", owner, 7)).containsExactlyElementsOf(ids(list("/bookings/owner", owner)));
+        assertThat(all).extracting(booking -> LocalDateTime.parse(booking.get("start").asText()))
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings").header(HEADER, booker).param("size", "25"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getHeader(NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void cursorRoundTrips() {
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("start", start, "id", 42L));
+
+        KeysetScrollPosition decoded = (KeysetScrollPosition) BookingCursor.decode(BookingCursor.encode(position));
+
+        assertThat(decoded.getKeys()).containsExactlyInAnyOrderEntriesOf(Map.of("start", start, "id", 42L));
+        assertThat(decoded.scrollsForward()).isTrue();
+        assertThat(BookingCursor.decode(null).isInitial()).isTrue();
+        assertThat(BookingCursor.decode(" ").isInitial()).isTrue();
+    }
+
+    @Test
+    void tamperedCursorIsRejected() throws Exception {
+        List<String> tampered = List.of("not base64!", encode("2024-05-01T12:30"), encode("yesterday|42"),
+                encode("2024-05-01T12:30|forty-two"), encode("|"));
+        for (String cursor : tampered) {
+            assertThatThrownBy(() -> BookingCursor.decode(cursor)).isInstanceOf(BadCursorException.class);
+            mockMvc.perform(get("/bookings").header(HEADER, booker).param("cursor", cursor))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private List<Long> walk(String path, long userId, int size) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(get(path).header(HEADER, userId)
+                            .param("size", String.valueOf(size))
+                            .param("cursor", cursor == null ? "" : cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            ids.addAll(ids(read(result)));
+            cursor = result.getResponse().getHeader(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<JsonNode> list(String path, long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn();
+        return read(result);
+    }
+
+    private List<JsonNode> read(MvcResult result) throws Exception {
+        List<JsonNode> bookings = new ArrayList<>();
+        objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .forEach(bookings::add);
+        return bookings;
+    }
+
+    private static List<Long> ids(List<JsonNode> bookings) {
+        return bookings.stream().map(booking -> booking.get("id").asLong()).toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.outbox.OutboxDispatcher;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Last and next booking of an item come from {@code item_booking_summaries}, which the outbox refreshes
+ * after an approval and {@link BookingSummaryService#refreshDue()} once the next booking has started.
+ * The refresh is Postgres-only, so this runs on the {@code postgres} profile, where the scheduler is off
+ * and both are triggered by hand.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class BookingSummaryControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+    @Autowired
+    private BookingSummaryService bookingSummaryService;
+
+    private long owner;
+    private long booker;
+    private long item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString();
+        owner = user("summary-owner-" + suffix);
+        booker = user("summary-booker-" + suffix);
+        item = jdbcTemplate.queryForObject("INSERT INTO items (name, description, is_available, owner_id) " +
+                "VALUES ('Дрель', 'Аккумуляторная дрель', true, ?) RETURNING id", Long.class, owner);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void approvalBecomesTheNextBookingOnceDispatched() throws Exception {
+        long later = book(now.plusDays(3));
+        long sooner = book(now.plusDays(1));
+        long rejected = book(now.plusHours(12));
+
+        approve(later, true);
+        itemOf(owner).andExpect(jsonPath("$.nextBooking").doesNotExist());
+
+        outboxDispatcher.dispatch();
+        itemOf(owner).andExpect(jsonPath("$.nextBooking.id").value(later));
+
+        approve(sooner, true);
+        approve(rejected, false);
+        outboxDispatcher.dispatch();
+        itemOf(owner)
+                .andExpect(jsonPath("$.lastBooking").doesNotExist())
+                .andExpect(jsonPath("$.nextBooking.id").value(sooner));
+        itemOf(booker).andExpect(jsonPath("$.nextBooking").doesNotExist());
+    }
+
+    @Test
+    void startedNextBookingBecomesTheLastOne() throws Exception {
+        long first = book(now.plusDays(1));
+        long second = book(now.plusDays(3));
+        approve(first, true);
+        approve(second, true);
+        outboxDispatcher.dispatch();
+
+        // Let the first booking start: its dates and the summary's next start move into the past
+        LocalDateTime started = now.minusHours(1);
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ? WHERE id = ?",
+                Timestamp.valueOf(started), Timestamp.valueOf(now.plusDays(1)), first);
+        jdbcTemplate.update("UPDATE item_booking_summaries SET next_start = ? WHERE item_id = ?",
+                Timestamp.valueOf(started), item);
+        itemOf(owner).andExpect(jsonPath("$.nextBooking.id").value(first));
+
+        bookingSummaryService.refreshDue();
+
+        itemOf(owner)
+                .andExpect(jsonPath("$.lastBooking.id").value(first))
+                .andExpect(jsonPath("$.nextBooking.id").value(second));
+    }
+
+    @Test
+    void refreshChangesTheItemETag() throws Exception {
+        String etag = itemOf(owner).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/items/{id}", item).header(HEADER, owner).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        approve(book(now.plusDays(1)), true);
+        outboxDispatcher.dispatch();
+
+        mockMvc.perform(get("/items/{id}", item).header(HEADER, owner).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextBooking").exists());
+    }
+
+    private long user(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES (?, ?) RETURNING id",
+                Long.class, name, name + "@mail.ru");
+    }
+
+    private long book(LocalDateTime start) throws Exception {
+        String body = mockMvc.perform(post("/bookings").header(HEADER, booker)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("itemId", item,
+                                "start", start.toString(), "end", start.plusDays(1).toString()))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private void approve(long booking, boolean approved) throws Exception {
+        mockMvc.perform(patch("/bookings/{id}", booking).header(HEADER, owner)
+                        .param("approved", String.valueOf(approved)))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions itemOf(long userId) throws Exception {
+        return mockMvc.perform(get("/items/{id}", item).header(HEADER, userId)).andExpect(status().isOk());
+    }
+}
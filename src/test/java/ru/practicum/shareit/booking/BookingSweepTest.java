@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The sweep's statements are Postgres-only, so this runs on the {@code postgres} profile. Time is moved
+ * by rewriting the booking dates rather than by waiting.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class BookingSweepTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingSweepService bookingSweepService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long booker;
+    private long item;
+
+    @BeforeEach
+    void seed() {
+        String suffix = UUID.randomUUID().toString();
+        long owner = user("sweep-owner-" + suffix);
+        booker = user("sweep-booker-" + suffix);
+        item = jdbcTemplate.queryForObject("INSERT INTO items (name, description, is_available, owner_id) " +
+                "VALUES ('Дрель', 'Аккумуляторная дрель', true, ?) RETURNING id", Long.class, owner);
+    }
+
+    @Test
+    void unansweredBookingExpiresOnceItStarts() {
+        LocalDateTime now = LocalDateTime.now();
+        long started = booking("WAITING", "FUTURE", now.minusMinutes(1), now.plusDays(1));
+        long future = booking("WAITING", "FUTURE", now.plusDays(1), now.plusDays(2));
+        long version = bookingsVersion();
+
+        bookingSweepService.sweep();
+
+        assertThat(status(started)).isEqualTo("EXPIRED");
+        assertThat(status(future)).isEqualTo("WAITING");
+        assertThat(bookingsVersion()).isGreaterThan(version);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events " +
+                "WHERE type = 'BOOKING_EXPIRED' AND aggregate_id = ?", Long.class, started)).isEqualTo(1);
+        assertThat(ids(BookingState.EXPIRED)).containsExactly(started);
+        assertThat(ids(BookingState.WAITING)).containsExactly(future);
+    }
+
+    @Test
+    void phaseFollowsTheDates() {
+        LocalDateTime now = LocalDateTime.now();
+        long booking = booking("APPROVED", "FUTURE", now.plusDays(1), now.plusDays(2));
+        long finishedUnswept = booking("APPROVED", "FUTURE", now.minusDays(2), now.minusDays(1));
+
+        bookingSweepService.sweep();
+        assertThat(phase(booking)).isEqualTo("FUTURE");
+        assertThat(phase(finishedUnswept)).isEqualTo("PAST");
+
+        moveDates(booking, now.minusMinutes(1), now.plusDays(1));
+        long version = bookingsVersion();
+        bookingSweepService.sweep();
+        assertThat(phase(booking)).isEqualTo("CURRENT");
+        assertThat(bookingsVersion()).isGreaterThan(version);
+
+        moveDates(booking, now.minusDays(1), now.minusMinutes(1));
+        bookingSweepService.sweep();
+        assertThat(phase(booking)).isEqualTo("PAST");
+        assertThat(status(booking)).isEqualTo("APPROVED");
+    }
+
+    @Test
+    void listsGoByTheDatesWhileThePhaseLagsBehind() {
+        LocalDateTime now = LocalDateTime.now();
+        long startedInFuture = booking("APPROVED", "FUTURE", now.minusMinutes(1), now.plusDays(1));
+        long finishedInCurrent = booking("APPROVED", "CURRENT", now.minusDays(1), now.minusMinutes(1));
+        long finishedInFuture = booking("APPROVED", "FUTURE", now.minusDays(2), now.minusDays(1));
+        long future = booking("APPROVED", "FUTURE", now.plusDays(1), now.plusDays(2));
+
+        assertThat(ids(BookingState.CURRENT)).containsExactly(startedInFuture);
+        assertThat(ids(BookingState.FUTURE)).containsExactly(future);
+        assertThat(ids(BookingState.PAST)).containsExactlyInAnyOrder(finishedInCurrent, finishedInFuture);
+
+        bookingSweepService.sweep();
+
+        assertThat(ids(BookingState.CURRENT)).containsExactly(startedInFuture);
+        assertThat(ids(BookingState.FUTURE)).containsExactly(future);
+        assertThat(ids(BookingState.PAST)).containsExactlyInAnyOrder(finishedInCurrent, finishedInFuture);
+    }
+
+    private long user(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES (?, ?) RETURNING id",
+                Long.class, name, name + "@mail.ru");
+    }
+
+    private long booking(String status, String phase, LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.queryForObject("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status, " +
+                        "phase) VALUES (?, ?, ?, ?, ?, ?) RETURNING id", Long.class,
+                Timestamp.valueOf(start), Timestamp.valueOf(end), item, booker, status, phase);
+    }
+
+    private void moveDates(long booking, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("UPDATE bookings SET start_date = ?, end_date = ? WHERE id = ?",
+                Timestamp.valueOf(start), Timestamp.valueOf(end), booking);
+    }
+
+    private String status(long booking) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, booking);
+    }
+
+    private String phase(long booking) {
+        return jdbcTemplate.queryForObject("SELECT phase FROM bookings WHERE id = ?", String.class, booking);
+    }
+
+    private long bookingsVersion() {
+        return jdbcTemplate.queryForObject("SELECT bookings_version FROM users WHERE id = ?", Long.class, booker);
+    }
+
+    private List<Long> ids(BookingState state) {
+        return bookingService.getByUser(booker, state, ScrollPosition.keyset(), 100).getContent().stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+    }
+}
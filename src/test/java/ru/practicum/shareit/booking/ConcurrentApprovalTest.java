@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.exception.StatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel approvals of overlapping WAITING bookings of one item. The conditional update and the
+ * exclusion constraint have to let exactly one of them through, whatever the interleaving.
+ * Runs on the {@code postgres} profile, whose schema comes from {@code schema.sql} with the constraint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class ConcurrentApprovalTest {
+    private static final int BOOKINGS = 16;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void schemaHasTheExclusionConstraint() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint " +
+                "WHERE conname = 'bookings_approved_no_overlap' AND contype = 'x'", Long.class)).isEqualTo(1);
+    }
+
+    @RepeatedTest(5)
+    void exactlyOneOfOverlappingApprovalsSucceeds() throws Exception {
+        long owner = user("owner");
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                "Дрель", "Аккумуляторная дрель", true, owner);
+        long item = jdbcTemplate.queryForObject("SELECT MAX(id) FROM items WHERE owner_id = ?", Long.class, owner);
+
+        // Every booking overlaps every other one
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            long booker = user("booker");
+            bookings.add(jdbcTemplate.queryForObject("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                            "VALUES (?, ?, ?, ?, 'WAITING') RETURNING id", Long.class,
+                    Timestamp.valueOf(start.plusHours(i)), Timestamp.valueOf(start.plusDays(1).plusHours(i)),
+                    item, booker));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKINGS);
+        CountDownLatch ready = new CountDownLatch(BOOKINGS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<BookingStatus>> outcomes = new ArrayList<>(BOOKINGS);
+        try {
+            for (Long booking : bookings) {
+                outcomes.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.approve(booking, true, owner).getStatus();
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            int approved = 0;
+            int conflicts = 0;
+            for (Future<BookingStatus> outcome : outcomes) {
+                try {
+                    assertThat(outcome.get()).isEqualTo(BookingStatus.APPROVED);
+                    approved++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOfAny(BookingOverlapException.class, StatusException.class);
+                    conflicts++;
+                }
+            }
+
+            assertThat(approved).isEqualTo(1);
+            assertThat(conflicts).isEqualTo(BOOKINGS - 1);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ? AND status = 'APPROVED'",
+                    Long.class, item)).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ? AND status = 'WAITING'",
+                    Long.class, item)).isEqualTo(BOOKINGS - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long user(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO users (name, email) VALUES (?, ?) RETURNING id", Long.class,
+                name, name + System.nanoTime() + "@mail.ru");
+    }
+}
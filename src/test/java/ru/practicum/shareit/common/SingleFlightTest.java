@@ -0,0 +1,112 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Object> results = runConcurrently(() -> {
+            calls.incrementAndGet();
+            await(release);
+            return result;
+        }, release);
+
+        assertThat(calls).hasValue(1);
+        assertThat(results).hasSize(CALLERS).allMatch(r -> r == result);
+    }
+
+    @Test
+    void concurrentCallersShareTheException() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("search failed");
+
+        List<Object> results = runConcurrently(() -> {
+            calls.incrementAndGet();
+            await(release);
+            throw failure;
+        }, release);
+
+        assertThat(calls).hasValue(1);
+        assertThat(results).hasSize(CALLERS).allMatch(r -> r == failure);
+    }
+
+    @Test
+    void nothingIsKeptAfterTheCall() {
+        AtomicInteger calls = new AtomicInteger();
+
+        flights.execute("key", calls::incrementAndGet);
+        assertThatThrownBy(() -> flights.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+        flights.execute("key", calls::incrementAndGet);
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void differentKeysDoNotWaitForEachOther() {
+        Object inner = flights.execute("outer", () -> flights.execute("inner", () -> "inner"));
+
+        assertThat(inner).isEqualTo("inner");
+    }
+
+    /**
+     * Starts {@link #CALLERS} threads on the same key and lets the call finish only once all of them
+     * are blocked, either in the call itself or waiting for it. Returns what each caller got back or threw.
+     */
+    private List<Object> runConcurrently(Supplier<Object> call, CountDownLatch release) throws Exception {
+        List<Object> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            Thread thread = new Thread(() -> {
+                Object outcome;
+                try {
+                    outcome = flights.execute("key", call);
+                } catch (RuntimeException e) {
+                    outcome = e;
+                }
+                synchronized (results) {
+                    results.add(outcome);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.TestData;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only a booker whose approved booking of the item has already ended may comment on it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommentEligibilityControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData data;
+    private String suffix;
+    private long item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seed() {
+        data = new TestData(jdbcTemplate);
+        suffix = UUID.randomUUID().toString();
+        item = data.items(data.user("eligibility-owner-" + suffix), 1).get(0);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void bookerOfAFinishedBookingMayComment() throws Exception {
+        long booker = booker("finished", "APPROVED", now.minusDays(2), now.minusDays(1));
+
+        comment(booker, "Отличная дрель")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.text").value("Отличная дрель"))
+                .andExpect(jsonPath("$.authorName").value("finished-" + suffix));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments WHERE item_id = ?", Long.class, item))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void bookerWhoseBookingHasNotEndedMayNotComment() throws Exception {
+        long current = booker("current", "APPROVED", now.minusDays(1), now.plusDays(1));
+        long future = booker("future", "APPROVED", now.plusDays(1), now.plusDays(2));
+
+        comment(current, "Пока нравится").andExpect(status().isBadRequest());
+        comment(future, "Жду с нетерпением").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void onlyApprovedBookingsCount() throws Exception {
+        long rejected = booker("rejected", "REJECTED", now.minusDays(2), now.minusDays(1));
+        long expired = booker("expired", "EXPIRED", now.minusDays(2), now.minusDays(1));
+
+        comment(rejected, "Так и не дали").andExpect(status().isBadRequest());
+        comment(expired, "Владелец не ответил").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void strangerAndEmptyTextAreRejected() throws Exception {
+        long stranger = data.user("stranger-" + suffix);
+        long booker = booker("empty", "APPROVED", now.minusDays(2), now.minusDays(1));
+
+        comment(stranger, "Не брал, но осуждаю").andExpect(status().isBadRequest());
+        comment(booker, "").andExpect(status().isBadRequest());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM comments WHERE item_id = ?", Long.class, item))
+                .isZero();
+    }
+
+    private long booker(String name, String status, LocalDateTime start, LocalDateTime end) {
+        long booker = data.user(name + "-" + suffix);
+        String phase = end.isBefore(now) ? "PAST" : start.isAfter(now) ? "FUTURE" : "CURRENT";
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, phase) " +
+                        "VALUES (NEXT VALUE FOR bookings_seq, ?, ?, ?, ?, ?, ?)",
+                Timestamp.valueOf(start), Timestamp.valueOf(end), item, booker, status, phase);
+        return booker;
+    }
+
+    private ResultActions comment(long userId, String text) throws Exception {
+        return mockMvc.perform(post("/items/{id}/comment", item).header(HEADER, userId)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"text\": \"" + text + "\"}"));
+    }
+}
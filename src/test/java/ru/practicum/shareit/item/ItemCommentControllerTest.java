@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comment pages of an item and the comment preview of the item endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemCommentControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long owner;
+    private long itemId;
+    private long quietItemId;
+
+    @BeforeAll
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        LocalDateTime now = LocalDateTime.now();
+        owner = data.user("comments-owner");
+        long author = data.user("comments-author");
+        List<Long> itemIds = data.items(owner, 2);
+        itemId = itemIds.get(0);
+        quietItemId = itemIds.get(1);
+        // "Комментарий 0" is the newest, one day apart
+        data.comments(List.of(itemId), author, 25, now);
+    }
+
+    @Test
+    void pagesCommentsNewestFirst() throws Exception {
+        mockMvc.perform(get("/items/{id}/comments", itemId).header(HEADER, owner)
+                        .param("from", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "25"))
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(jsonPath("$[0].text").value("Комментарий 0"))
+                .andExpect(jsonPath("$[0].authorName").value("comments-author"))
+                .andExpect(jsonPath("$[9].text").value("Комментарий 9"));
+
+        mockMvc.perform(get("/items/{id}/comments", itemId).header(HEADER, owner)
+                        .param("from", "20").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "25"))
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].text").value("Комментарий 20"))
+                .andExpect(jsonPath("$[4].text").value("Комментарий 24"));
+    }
+
+    @Test
+    void itemWithoutComments() throws Exception {
+        mockMvc.perform(get("/items/{id}/comments", quietItemId).header(HEADER, owner))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "0"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void unknownItem() throws Exception {
+        mockMvc.perform(get("/items/{id}/comments", Long.MAX_VALUE).header(HEADER, owner))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void itemShowsLatestCommentsAndTotal() throws Exception {
+        mockMvc.perform(get("/items/{id}", itemId).header(HEADER, owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commentCount").value(25))
+                .andExpect(jsonPath("$.comments.length()").value(20))
+                .andExpect(jsonPath("$.comments[0].text").value("Комментарий 0"))
+                .andExpect(jsonPath("$.comments[19].text").value("Комментарий 19"));
+    }
+
+    @Test
+    void itemListShowsLatestCommentsPerItem() throws Exception {
+        mockMvc.perform(get("/items").header(HEADER, owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.id == %d)].commentCount", itemId).value(25))
+                .andExpect(jsonPath("$[?(@.id == %d)].comments.length()", itemId).value(20))
+                .andExpect(jsonPath("$[?(@.id == %d)].comments[0].text", itemId).value("Комментарий 0"))
+                .andExpect(jsonPath("$[?(@.id == %d)].commentCount", quietItemId).value(0))
+                .andExpect(jsonPath("$[?(@.id == %d)].comments.length()", quietItemId).value(0));
+    }
+}
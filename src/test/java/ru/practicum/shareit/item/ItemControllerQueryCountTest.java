@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Number of SQL statements per item read endpoint. Every item carries its booking summary and latest
+ * comments, which are loaded in bulk, so the count does not depend on the number of items returned.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemControllerQueryCountTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long owner;
+    private long lonelyOwner;
+    private long itemId;
+
+    @BeforeAll
+    void seed() {
+        TestData data = new TestData(jdbcTemplate);
+        LocalDateTime now = LocalDateTime.now();
+        long booker = data.user("item-queries-booker");
+
+        owner = data.user("item-queries-owner");
+        List<Long> itemIds = data.items(owner, 30);
+        data.bookings(itemIds, booker, 4, now);
+        data.comments(itemIds, booker, 3, now);
+        data.summaries(owner, now);
+        itemId = itemIds.get(0);
+
+        lonelyOwner = data.user("item-queries-lonely-owner");
+        List<Long> lonelyItemIds = data.items(lonelyOwner, 1);
+        data.bookings(lonelyItemIds, booker, 4, now);
+        data.comments(lonelyItemIds, booker, 3, now);
+        data.summaries(lonelyOwner, now);
+    }
+
+    @Test
+    void getById() throws Exception {
+        // ETag, booking summary with last and next booking, first comment page, item with owner.
+        // The page is not full, so no count query is needed.
+        assertThat(countQueries("/items/{itemId}", get("/items/{id}", itemId).header(HEADER, owner))).isEqualTo(4);
+    }
+
+    @Test
+    void getComments() throws Exception {
+        // item check, first comment page
+        assertThat(countQueries("/items/{itemId}/comments", get("/items/{id}/comments", itemId).header(HEADER, owner))).isEqualTo(2);
+    }
+
+    @Test
+    void allItemsFromUser() throws Exception {
+        // ETag, items, booking summaries with bookings, latest comments, comment counts
+        assertThat(countQueries("/items", get("/items").header(HEADER, owner), 30)).isEqualTo(5);
+        assertThat(countQueries("/items", get("/items").header(HEADER, lonelyOwner), 1)).isEqualTo(5);
+    }
+
+    /**
+     * Statements of one request, as recorded by {@code QueryCountInterceptor} for the endpoint's URI pattern.
+     */
+    private long countQueries(String uri, MockHttpServletRequestBuilder request) throws Exception {
+        double before = totalQueries(uri);
+        mockMvc.perform(request).andExpect(status().isOk());
+        return Math.round(totalQueries(uri) - before);
+    }
+
+    private long countQueries(String uri, MockHttpServletRequestBuilder request, int expectedSize) throws Exception {
+        double before = totalQueries(uri);
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedSize));
+        return Math.round(totalQueries(uri) - before);
+    }
+
+    private double totalQueries(String uri) {
+        DistributionSummary summary = meterRegistry.find("shareit.http.queries")
+                .tags("method", "GET", "uri", uri)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
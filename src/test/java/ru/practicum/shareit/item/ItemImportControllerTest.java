@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.TestData;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk item import in chunks of 500 rows, each written in its own transaction. A chunk the database
+ * rejects is rolled back as a whole and reported row by row; the chunks around it are kept.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemImportControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+    private static final int ROWS = 1200;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long owner;
+
+    @BeforeEach
+    void seed() {
+        owner = new TestData(jdbcTemplate).user("import-owner-" + UUID.randomUUID());
+    }
+
+    @Test
+    void everyRowIsImportedAndReportedInOrder() throws Exception {
+        List<JsonNode> results = importItems(items());
+
+        assertThat(results).hasSize(ROWS);
+        assertThat(results).extracting(result -> result.get("row").asInt()).isSorted();
+        assertThat(results).allMatch(result -> result.hasNonNull("id") && !result.has("error"));
+        assertThat(itemCount()).isEqualTo(ROWS);
+    }
+
+    @Test
+    void invalidRowFailsAlone() throws Exception {
+        List<Map<String, Object>> items = items();
+        items.get(3).put("name", " ");
+        items.get(4).put("requestId", Long.MAX_VALUE);
+
+        List<JsonNode> results = importItems(items);
+
+        assertThat(results.get(3).get("error").asText()).contains("name");
+        assertThat(results.get(4).get("error").asText()).contains("Request not found");
+        assertThat(results).filteredOn(result -> result.has("error")).hasSize(2);
+        assertThat(itemCount()).isEqualTo(ROWS - 2);
+    }
+
+    @Test
+    void chunkRejectedByTheDatabaseIsRolledBack() throws Exception {
+        List<Map<String, Object>> items = items();
+        // Passes validation, but does not fit the column
+        items.get(700).put("name", "Дрель".repeat(100));
+        long itemsVersion = itemsVersion();
+
+        List<JsonNode> results = importItems(items);
+
+        assertThat(results).hasSize(ROWS);
+        for (JsonNode result : results) {
+            int row = result.get("row").asInt();
+            boolean inRejectedChunk = row >= 500 && row < 1000;
+            assertThat(result.has("error")).as("row %d", row).isEqualTo(inRejectedChunk);
+            assertThat(result.hasNonNull("id")).as("row %d", row).isEqualTo(!inRejectedChunk);
+        }
+        assertThat(itemCount()).isEqualTo(ROWS - 500);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ? AND name = ?",
+                Long.class, owner, "Дрель 600")).isZero();
+        assertThat(itemsVersion()).isEqualTo(itemsVersion + 2);
+    }
+
+    private List<Map<String, Object>> items() {
+        List<Map<String, Object>> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", "Дрель " + i);
+            item.put("description", "Аккумуляторная дрель " + i);
+            item.put("available", true);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private List<JsonNode> importItems(List<Map<String, Object>> items) throws Exception {
+        MvcResult started = mockMvc.perform(post("/items/import").header(HEADER, owner)
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private long itemCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Long.class, owner);
+    }
+
+    private long itemsVersion() {
+        return jdbcTemplate.queryForObject("SELECT items_version FROM users WHERE id = ?", Long.class, owner);
+    }
+}
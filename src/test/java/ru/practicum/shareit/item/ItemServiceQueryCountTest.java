@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.metrics.QueryCountInspector;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemServiceQueryCountTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        QueryCountInspector.clear();
+    }
+
+    @Test
+    void allItemsFromUserRunsTheSameNumberOfQueriesForAnyNumberOfItems() {
+        TestData data = new TestData(jdbcTemplate);
+        LocalDateTime now = LocalDateTime.now();
+        long booker = data.user("all-items-booker");
+        long smallOwner = seedOwner(data, "all-items-owner-10", 10, booker, now);
+        long largeOwner = seedOwner(data, "all-items-owner-1000", 1000, booker, now);
+
+        QueryCountInspector.reset();
+        List<ItemBookingDto> small = itemService.allItemsFromUser(smallOwner);
+        int smallQueries = QueryCountInspector.count();
+
+        QueryCountInspector.reset();
+        List<ItemBookingDto> large = itemService.allItemsFromUser(largeOwner);
+        int largeQueries = QueryCountInspector.count();
+
+        assertThat(small).hasSize(10);
+        assertThat(large).hasSize(1000);
+        assertThat(large).allSatisfy(item -> {
+            assertThat(item.getLastBooking()).isNotNull();
+            assertThat(item.getNextBooking()).isNotNull();
+            assertThat(item.getComments()).hasSize(3);
+        });
+        assertThat(largeQueries).isEqualTo(smallQueries);
+    }
+
+    private static long seedOwner(TestData data, String name, int items, long booker, LocalDateTime now) {
+        long owner = data.user(name);
+        List<Long> itemIds = data.items(owner, items);
+        data.bookings(itemIds, booker, 4, now);
+        data.comments(itemIds, booker, 3, now);
+        data.summaries(owner, now);
+        return owner;
+    }
+}
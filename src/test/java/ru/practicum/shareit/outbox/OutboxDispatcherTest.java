@@ -0,0 +1,223 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Ordering, retries and claiming of {@link OutboxDispatcher} against the real claim query, which is
+ * Postgres-only. The dispatchers are built by hand with a test handler; the scheduler is off in the
+ * {@code postgres} profile, so nothing else touches the outbox.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxDispatcherTest {
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<OutboxDispatcher> dispatchers = new ArrayList<>();
+    private final List<OutboxEvent> handled = Collections.synchronizedList(new ArrayList<>());
+    private volatile Predicate<OutboxEvent> failing = event -> false;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @AfterEach
+    void shutdown() {
+        dispatchers.forEach(OutboxDispatcher::shutdown);
+    }
+
+    @Test
+    void eventsOfAnItemAreHandledInOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(event(i % 3));
+        }
+
+        dispatcher(4, 7).dispatch();
+
+        assertThat(handled).extracting(OutboxEvent::getId).containsExactlyInAnyOrderElementsOf(ids);
+        assertInOrderPerItem(handled);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void failedEventHoldsBackTheRestOfItsItem() {
+        long first = event(1);
+        long failed = event(1);
+        long last = event(1);
+        long other = event(2);
+        failing = event -> event.getId() == failed;
+        OutboxDispatcher dispatcher = dispatcher(2, 10);
+
+        dispatcher.dispatch();
+
+        assertThat(handled).extracting(OutboxEvent::getId).containsExactlyInAnyOrder(first, failed, other);
+        assertThat(attempts(failed)).isEqualTo(1);
+        assertThat(nextAttempt(last)).isNull();
+
+        failing = event -> false;
+        dispatcher.dispatch();
+        assertThat(handled).extracting(OutboxEvent::getId).containsExactlyInAnyOrder(first, failed, other);
+
+        makeDue(failed);
+        dispatcher.dispatch();
+        assertThat(handled).filteredOn(event -> event.getItemId() == 1).extracting(OutboxEvent::getId)
+                .containsExactly(first, failed, failed, last);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void retryDelayDoublesWithEveryFailure() {
+        long id = event(1);
+        failing = event -> true;
+        OutboxDispatcher dispatcher = dispatcher(1, 10);
+
+        for (int failures = 0; failures < MAX_ATTEMPTS; failures++) {
+            LocalDateTime before = LocalDateTime.now();
+            dispatcher.dispatch();
+
+            assertThat(attempts(id)).isEqualTo(failures + 1);
+            assertThat(nextAttempt(id)).isCloseTo(before.plus(RETRY_DELAY.multipliedBy(1L << failures)),
+                    within(5, ChronoUnit.SECONDS));
+            makeDue(id);
+        }
+    }
+
+    @Test
+    void eventIsGivenUpAfterMaxAttemptsAndUnblocksItsItem() {
+        long dead = event(1);
+        long next = event(1);
+        failing = event -> event.getId() == dead;
+        OutboxDispatcher dispatcher = dispatcher(1, 10);
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            dispatcher.dispatch();
+            makeDue(dead);
+        }
+        assertThat(attempts(dead)).isEqualTo(MAX_ATTEMPTS);
+        assertThat(handled).extracting(OutboxEvent::getId).containsOnly(dead);
+
+        dispatcher.dispatch();
+
+        assertThat(handled).extracting(OutboxEvent::getId).containsExactly(dead, dead, dead, next);
+        assertThat(jdbcTemplate.queryForObject("SELECT processed_date IS NULL FROM outbox_events WHERE id = ?",
+                Boolean.class, dead)).isTrue();
+    }
+
+    @RepeatedTest(5)
+    void concurrentDispatchersHandleEveryEventOnceAndInOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            ids.add(event(i % 20));
+        }
+        List<OutboxDispatcher> parallel = List.of(dispatcher(2, 10), dispatcher(2, 10), dispatcher(2, 10));
+
+        CompletableFuture.allOf(parallel.stream()
+                .map(dispatcher -> CompletableFuture.runAsync(dispatcher::dispatch))
+                .toArray(CompletableFuture[]::new)).join();
+        // A dispatcher stops once a batch comes back short, which another one may have caused
+        parallel.get(0).dispatch();
+
+        assertThat(handled).extracting(OutboxEvent::getId).containsExactlyInAnyOrderElementsOf(ids);
+        assertInOrderPerItem(handled);
+        assertThat(pending()).isZero();
+    }
+
+    private OutboxDispatcher dispatcher(int concurrency, int batchSize) {
+        OutboxEventHandler handler = new OutboxEventHandler() {
+            @Override
+            public Set<OutboxEventType> types() {
+                return Set.of(OutboxEventType.BOOKING_CREATED);
+            }
+
+            @Override
+            public void handle(OutboxEvent event) {
+                handled.add(event);
+                if (failing.test(event)) {
+                    throw new IllegalStateException("Event " + event.getId() + " failed");
+                }
+            }
+        };
+        OutboxDispatcher dispatcher = new OutboxDispatcher(outboxEventRepository, transactionTemplate,
+                new SimpleMeterRegistry(), List.of(handler), concurrency, batchSize, MAX_ATTEMPTS, RETRY_DELAY,
+                Duration.ofHours(1), Duration.ofDays(1), Duration.ofMinutes(5));
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    private long event(long itemId) {
+        return jdbcTemplate.queryForObject("INSERT INTO outbox_events (type, aggregate_id, item_id, created_date) " +
+                "VALUES ('BOOKING_CREATED', ?, ?, ?) RETURNING id", Long.class, itemId, itemId,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void makeDue(long id) {
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_date = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), id);
+    }
+
+    private int attempts(long id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM outbox_events WHERE id = ?", Integer.class, id);
+    }
+
+    private LocalDateTime nextAttempt(long id) {
+        Timestamp next = jdbcTemplate.queryForObject("SELECT next_attempt_date FROM outbox_events WHERE id = ?",
+                Timestamp.class, id);
+        return next == null ? null : next.toLocalDateTime();
+    }
+
+    private long pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE processed_date IS NULL",
+                Long.class);
+    }
+
+    private static void assertInOrderPerItem(List<OutboxEvent> events) {
+        Map<Long, List<Long>> byItem = events.stream().collect(Collectors.groupingBy(OutboxEvent::getItemId,
+                Collectors.mapping(OutboxEvent::getId, Collectors.toList())));
+        byItem.values().forEach(ids -> assertThat(ids).isSorted());
+    }
+}
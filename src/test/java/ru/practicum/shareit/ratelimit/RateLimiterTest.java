@@ -0,0 +1,114 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The clock only moves when a test moves it, so the refill is exact.
+ */
+class RateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void burstUpToCapacityThenWaitForTheNextToken() {
+        RateLimiter limiter = limiter(3, 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND);
+
+        clock.addAndGet(SECOND / 4);
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND * 3 / 4);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        RateLimiter limiter = limiter(2, 4, 100);
+        drain(limiter, "a");
+
+        clock.addAndGet(SECOND / 4);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        RateLimiter limiter = limiter(3, 1, 100);
+        drain(limiter, "a");
+
+        clock.addAndGet(60 * SECOND);
+
+        assertThat(drain(limiter, "a")).isEqualTo(3);
+    }
+
+    @Test
+    void keysHaveTheirOwnBuckets() {
+        RateLimiter limiter = limiter(1, 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanTheBurst() {
+        RateLimiter limiter = limiter(50, 1, 100);
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            CompletableFuture.allOf(IntStream.range(0, 8)
+                    .mapToObj(thread -> CompletableFuture.runAsync(() -> {
+                        for (int i = 0; i < 100; i++) {
+                            if (limiter.tryAcquire("a") == 0) {
+                                taken.incrementAndGet();
+                            }
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(taken).hasValue(50);
+    }
+
+    @Test
+    void bucketCountIsCapped() {
+        RateLimiter limiter = limiter(1, 1, 10);
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+
+        assertThat(limiter.bucketCount()).isLessThanOrEqualTo(10);
+    }
+
+    private RateLimiter limiter(int capacity, double refillPerSecond, long maxBuckets) {
+        return new RateLimiter(capacity, refillPerSecond, Duration.ofMinutes(10), maxBuckets, clock::get);
+    }
+
+    private static int drain(RateLimiter limiter, String key) {
+        int taken = 0;
+        while (limiter.tryAcquire(key) == 0) {
+            taken++;
+        }
+        return taken;
+    }
+}
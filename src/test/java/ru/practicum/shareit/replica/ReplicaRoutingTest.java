@@ -0,0 +1,122 @@
+package ru.practicum.shareit.replica;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routing with the {@code replica} profile against two H2 databases. The replica has the schema but
+ * none of the data, like a replica that is behind, and H2 ignores the read-only flag of its pool, so a
+ * write routed to it would succeed there instead of failing.
+ */
+@SpringBootTest(properties = {
+        "shareit.replica.datasource.jdbc-url=jdbc:h2:mem:replica-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "shareit.replica.datasource.driver-class-name=org.h2.Driver",
+        "shareit.replica.datasource.username=sa",
+        "shareit.replica.datasource.password=",
+        "shareit.replica.lag-query="})
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void copySchemaToReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        primary.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--") && !statement.startsWith("CREATE USER"))
+                .forEach(replica::execute);
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() throws Exception {
+        new TestData(primary).user("replica-reader");
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void itemImportWritesToPrimary() throws Exception {
+        long owner = new TestData(primary).user("replica-item-importer");
+
+        perform(post("/items/import").header(HEADER, owner).content(objectMapper.writeValueAsString(List.of(
+                Map.of("name", "Дрель", "description", "Аккумуляторная дрель", "available", true),
+                Map.of("name", "Отвёртка", "description", "Аккумуляторная отвёртка", "available", true)))));
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?", Long.class, owner))
+                .isEqualTo(2);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM items", Long.class)).isZero();
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM outbox_events", Long.class)).isZero();
+    }
+
+    @Test
+    void bookingImportWritesToPrimary() throws Exception {
+        TestData data = new TestData(primary);
+        long owner = data.user("replica-booking-importer");
+        long booker = data.user("replica-booker");
+        List<Long> items = data.items(owner, 1);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        perform(post("/bookings/import").header(HEADER, owner).content(objectMapper.writeValueAsString(List.of(
+                Map.of("itemId", items.get(0), "bookerId", booker, "start", start, "end", start.plusDays(1))))));
+
+        assertThat(primary.queryForObject("SELECT COUNT(*) FROM bookings WHERE booker_id = ?", Long.class, booker))
+                .isEqualTo(1);
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM bookings", Long.class)).isZero();
+    }
+
+    private void perform(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("\"error\"");
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The {@code /requests} endpoints. Answers of all listed requests are read in one grouped query, so the
+ * number of statements does not depend on the number of requests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ItemRequestControllerTest {
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long requester;
+    private long owner;
+    private long stranger;
+    private long drill;
+    private long ladder;
+    private long saw;
+    private long drillAnswer;
+    private long secondDrillAnswer;
+    private long sawAnswer;
+
+    @BeforeAll
+    void seed() throws Exception {
+        TestData data = new TestData(jdbcTemplate);
+        requester = data.user("requests-requester");
+        owner = data.user("requests-owner");
+        stranger = data.user("requests-stranger");
+
+        drill = request(requester, "Нужна дрель");
+        ladder = request(requester, "Нужна стремянка");
+        saw = request(requester, "Нужна пила");
+        for (int i = 0; i < 10; i++) {
+            request(stranger, "Нужен молоток " + i);
+        }
+
+        drillAnswer = answer(drill, "Дрель");
+        secondDrillAnswer = answer(drill, "Перфоратор");
+        sawAnswer = answer(saw, "Пила");
+    }
+
+    @Test
+    void createdRequestHasNoAnswersYet() throws Exception {
+        mockMvc.perform(post("/requests").header(HEADER, owner)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\": \"Нужна тачка\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.description").value("Нужна тачка"))
+                .andExpect(jsonPath("$.created").isNotEmpty())
+                .andExpect(jsonPath("$.items", empty()));
+    }
+
+    @Test
+    void blankDescriptionIsRejected() throws Exception {
+        mockMvc.perform(post("/requests").header(HEADER, requester)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\": \" \"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ownRequestsComeNewestFirstWithTheirAnswers() throws Exception {
+        mockMvc.perform(get("/requests").header(HEADER, requester))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[*].id").value(containsInAnyOrder(
+                        (int) saw, (int) ladder, (int) drill)))
+                .andExpect(jsonPath("$[0].id").value(saw))
+                .andExpect(jsonPath("$[0].items[*].id").value(containsInAnyOrder((int) sawAnswer)))
+                .andExpect(jsonPath("$[1].items", empty()))
+                .andExpect(jsonPath("$[2].items[*].id").value(containsInAnyOrder(
+                        (int) drillAnswer, (int) secondDrillAnswer)))
+                .andExpect(jsonPath("$[2].items[0].ownerId").value(owner))
+                .andExpect(jsonPath("$[2].items[0].requestId").doesNotExist());
+    }
+
+    @Test
+    void otherRequestsArePagedAndLeaveOutOwnOnes() throws Exception {
+        mockMvc.perform(get("/requests/all").header(HEADER, requester).param("from", "0").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].description").value("Нужен молоток 9"));
+        mockMvc.perform(get("/requests/all").header(HEADER, requester).param("from", "8").param("size", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].description").value("Нужен молоток 0"));
+        mockMvc.perform(get("/requests/all").header(HEADER, stranger).param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].description").value(containsInAnyOrder(
+                        "Нужна пила", "Нужна стремянка", "Нужна дрель")));
+    }
+
+    @Test
+    void requestByIdHasItsAnswers() throws Exception {
+        mockMvc.perform(get("/requests/{id}", drill).header(HEADER, stranger))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Нужна дрель"))
+                .andExpect(jsonPath("$.items[*].name").value(containsInAnyOrder("Дрель", "Перфоратор")));
+    }
+
+    @Test
+    void unknownRequestOrUserIsNotFound() throws Exception {
+        mockMvc.perform(get("/requests/{id}", Long.MAX_VALUE).header(HEADER, requester))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/requests").header(HEADER, Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listsTakeAFixedNumberOfStatements() throws Exception {
+        // requests, answers of all of them
+        assertThat(countQueries("/requests/all", get("/requests/all").header(HEADER, owner).param("size", "1")))
+                .isEqualTo(2);
+        assertThat(countQueries("/requests/all", get("/requests/all").header(HEADER, owner).param("size", "13")))
+                .isEqualTo(2);
+        assertThat(countQueries("/requests", get("/requests").header(HEADER, requester))).isEqualTo(2);
+        assertThat(countQueries("/requests", get("/requests").header(HEADER, stranger))).isEqualTo(2);
+    }
+
+    private long request(long userId, String description) throws Exception {
+        String body = mockMvc.perform(post("/requests").header(HEADER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("description", description))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private long answer(long requestId, String name) throws Exception {
+        String body = mockMvc.perform(post("/items").header(HEADER, owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", name, "description", name,
+                                "available", true, "requestId", requestId))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    /**
+     * Statements of one request, as recorded by {@code QueryCountInterceptor} for the endpoint's URI pattern.
+     * The request is sent once beforehand, so that the user lookup is served from the cache both times.
+     */
+    private long countQueries(String uri, MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+        double before = totalQueries(uri);
+        mockMvc.perform(request).andExpect(status().isOk());
+        return Math.round(totalQueries(uri) - before);
+    }
+
+    private double totalQueries(String uri) {
+        DistributionSummary summary = meterRegistry.find("shareit.http.queries")
+                .tags("method", "GET", "uri", uri)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
@@ -0,0 +1,4 @@
+-- Columns that are only read and written by native queries and therefore not created by Hibernate
+ALTER TABLE users ADD COLUMN IF NOT EXISTS items_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS bookings_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS etag_version BIGINT NOT NULL DEFAULT 0;